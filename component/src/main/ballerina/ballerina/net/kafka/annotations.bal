@@ -6,10 +6,25 @@ package ballerina.net.kafka;
 @Field { value:"topics: Topics to be subscribed." }
 @Field { value:"pollingTimeout: Polling timeout to wait on poll cycle." }
 @Field { value:"pollingInterval: Polling interval between two polling cycles." }
+@Field { value:"pollingMode: Either 'scheduled' (default), 'continuous' (tight loop) or 'shared' (process wide)." }
 @Field { value:"offsetReset: Offset reset strategy if no initial offset." }
 @Field { value:"concurrentConsumers: Number of concurrent consumers for service." }
 @Field { value:"decoupleProcessing: Decouple message retrival and processing." }
-@Field { value:"partitionAssignmentStrategy: Strategy class for handle partition assignment among consumers." }
+@Field { value:"maxInFlightBatches: Maximum number of record batches under decoupled processing per consumer." }
+@Field { value:"partitionedDispatch: Process records of each partition concurrently, in order within a partition." }
+@Field { value:"keyOrderedConcurrency: Number of concurrent lanes records are processed in, in order within a key." }
+@Field { value:"transactionalID: Process each record batch in a producer transaction which commits its offsets." }
+@Field { value:"coalesceAsyncCommits: Merge async commits issued while a commit is in flight." }
+@Field { value:"commitInterval: Interval in milliseconds to commit processed offsets in, without autoCommit." }
+@Field { value:"commitRecordCount: Number of processed records to commit offsets after, without autoCommit." }
+@Field { value:"virtualThreads: Poll on a virtual thread per consumer where the JVM supports it." }
+@Field { value:"minConsumers: Minimum number of consumers when consumers scale with the lag of the group." }
+@Field { value:"maxConsumers: Maximum number of consumers, enables scaling consumers with the lag of the group." }
+@Field { value:"scaleUpLag: Lag of the group in records above which a consumer is added." }
+@Field { value:"scaleDownLag: Lag of the group in records below which a consumer is removed." }
+@Field { value:"lagSampleInterval: Interval in milliseconds the lag of the group is sampled in." }
+@Field { value:"drainTimeout: Milliseconds in flight batches are waited for when a consumer is stopped." }
+@Field { value:"partitionAssignmentStrategy: Partition assignment strategy class among consumers, or sticky." }
 @Field { value:"metricsRecordingLevel: Metrics recording level." }
 @Field { value:"metricReporterClasses: Metrics reporter classes." }
 @Field { value:"clientID: Id to be used for server side logging." }
@@ -44,9 +59,24 @@ public annotation configuration attach service<> {
     string[] topics;
     int pollingTimeout;
     int pollingInterval;
+    string pollingMode;
     int concurrentConsumers;
     boolean autoCommit;
     boolean decoupleProcessing;
+    int maxInFlightBatches;
+    boolean partitionedDispatch;
+    int keyOrderedConcurrency;
+    string transactionalID;
+    boolean coalesceAsyncCommits;
+    int commitInterval;
+    int commitRecordCount;
+    boolean virtualThreads;
+    int minConsumers;
+    int maxConsumers;
+    int scaleUpLag;
+    int scaleDownLag;
+    int lagSampleInterval;
+    int drainTimeout;
     string offsetReset;
     int sessionTimeout;
     int heartBeatInterval;
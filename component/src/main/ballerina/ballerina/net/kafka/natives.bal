@@ -156,12 +156,24 @@ public struct ProducerRecord {
    int timestamp = -1;
 }
 
+@Description { value:"Struct which represents metadata of a record acknowledged by the broker"}
+@Field { value:"topic: Topic record is sent to" }
+@Field { value:"partition: Topic partition record is stored" }
+@Field { value:"offset: Offset of the record positioned in partition" }
+@Field { value:"timestamp: Timestamp of the record" }
+public struct RecordMetadata {
+   string topic;
+   int partition;
+   int offset;
+   int timestamp;
+}
+
 @Description { value:"Producer Client Connector for execute producing kafka records to the broker"}
 @Param { value:"bootstrapServers: Producer configuration" }
 @Param { value:"conf: Producer configuration" }
 public connector ProducerClient (string[] bootstrapServers, ProducerConfig conf) {
 
-    map producerHolder = {};
+    Producer producerHolder = {};
     string connectorID = util:uuid();
 
     @Description { value:"Simple Send action which produce records to Kafka server"}
@@ -173,6 +185,17 @@ public connector ProducerClient (string[] bootstrapServers, ProducerConfig conf)
     @Param { value:"record: ProducerRecord to be sent." }
     native action sendAdvanced (ProducerRecord record);
 
+    @Description { value:"Async Send action which produce records to Kafka server without waiting for the broker"}
+    @Param { value:"record: ProducerRecord to be sent." }
+    @Param { value:"onComplete: Function will be executed once the record is acknowledged or failed, can be null" }
+    native action sendAsync (ProducerRecord record, function(RecordMetadata metadata, error err) onComplete);
+
+    @Description { value:"Batch Send action which produce an array of records to Kafka server in a single call"}
+    @Param { value:"records: ProducerRecords to be sent." }
+    @Return { value:"RecordMetadata[]: Metadata per record, null if the record failed" }
+    @Return { value:"error[]: Error per record, null if the record is acknowledged" }
+    native action sendBatch (ProducerRecord[] records) (RecordMetadata[], error[]);
+
     @Description { value:"Flush action which flush batch of records"}
     native action flush ();
 
@@ -227,6 +250,22 @@ public struct Offset {
   int offset;
 }
 
+@Description { value:"Struct which represents how long a consumer has been paused in rebalance callbacks"}
+@Field { value:"revokeCount: Number of times partitions were revoked from the consumer" }
+@Field { value:"totalRevokePause: Total time spent in revoke callbacks in milliseconds" }
+@Field { value:"maxRevokePause: Longest time spent in a revoke callback in milliseconds" }
+@Field { value:"assignCount: Number of times partitions were assigned to the consumer" }
+@Field { value:"totalAssignPause: Total time spent in assign callbacks in milliseconds" }
+@Field { value:"maxAssignPause: Longest time spent in an assign callback in milliseconds" }
+public struct RebalanceMetrics {
+  int revokeCount;
+  int totalRevokePause;
+  int maxRevokePause;
+  int assignCount;
+  int totalAssignPause;
+  int maxAssignPause;
+}
+
 @Description { value:"Connects to consumer to external Kafka broker"}
 @Return { value:"error: Error will be returned if connection to broker is failed" }
 public native function <Consumer consumer> connect() (error);
@@ -290,6 +329,19 @@ public native function <Consumer consumer> commit();
 @Param { value:"offsets: Offsets to be commited" }
 public native function <Consumer consumer> commitOffset(Offset[] offsets);
 
+@Description { value:"Commits current consumed offsets for consumer without waiting for the broker"}
+@Param { value:"onComplete: Function will be executed once the commit is completed, can be null" }
+@Return { value:"error: Error will be returned if the commit request is failed" }
+public native function <Consumer consumer> commitAsync(
+  function(Consumer consumer, Offset[] offsets, error err) onComplete) (error);
+
+@Description { value:"Commits given offsets for consumer without waiting for the broker"}
+@Param { value:"offsets: Offsets to be commited" }
+@Param { value:"onComplete: Function will be executed once the commit is completed, can be null" }
+@Return { value:"error: Error will be returned if the commit request is failed" }
+public native function <Consumer consumer> commitOffsetAsync(Offset[] offsets,
+  function(Consumer consumer, Offset[] offsets, error err) onComplete) (error);
+
 @Description { value:"Seek consumer for given offset in a topic partition" }
 @Param { value:"offset: Given offset to seek" }
 @Return { value:"error: Error will be returned if seeking of position is failed" }
@@ -334,6 +386,11 @@ public native function <Consumer consumer> resume(TopicPartition[] partitions) (
 @Return { value:"error: Error will be returned if paused partitions retrieval is failed" }
 public native function <Consumer consumer> getPausedPartitions() (TopicPartition[], error);
 
+@Description { value:"Sends a record within the transaction of the record batch being processed by a service configured with transactionalID"}
+@Param { value:"record: ProducerRecord to be sent." }
+@Return { value:"error: Error will be returned if the consumer is not transactional or sending the record is failed" }
+public native function <Consumer consumer> sendInTransaction(ProducerRecord record) (error);
+
 @Description { value:"Returns start offsets for given set of partitions"}
 @Param { value:"partitions: Set of partitions to return start offsets" }
 @Return { value:"Offset[]: Start offsets for partitions" }
@@ -346,3 +403,7 @@ public native function <Consumer consumer> getBeginningOffsets(TopicPartition[]
 @Return { value:"error: Error will be returned if offset retrieval is failed" }
 public native function <Consumer consumer> getEndOffsets(TopicPartition[] partitions) (Offset[], error);
 
+@Description { value:"Returns how long the consumer has been paused in rebalance callbacks"}
+@Return { value:"RebalanceMetrics: Pause durations of the rebalance callbacks of the consumer" }
+@Return { value:"error: Error will be returned if retrieval of rebalance metrics is failed" }
+public native function <Consumer consumer> getRebalanceMetrics() (RebalanceMetrics, error);
@@ -35,6 +35,12 @@ public class KafkaConstants {
     public static final String PRODUCER_CONNECTOR_NAME = "ProducerClient";
 
     public static final String NATIVE_CONSUMER = "KafkaConsumer";
+    public static final String NATIVE_CONSUMER_COMMAND_QUEUE = "KafkaConsumerCommandQueue";
+    public static final String NATIVE_CONSUMER_TRANSACTION_PRODUCER = "KafkaConsumerTransactionProducer";
+    public static final String NATIVE_CONSUMER_OFFSET_LEDGER = "KafkaConsumerOffsetLedger";
+    public static final String NATIVE_CONSUMER_OFFSET_COMMITTER = "KafkaConsumerOffsetCommitter";
+    public static final String NATIVE_CONSUMER_REBALANCE_METRICS = "KafkaConsumerRebalanceMetrics";
+    public static final String NATIVE_CONSUMER_CONFIG = "KafkaConsumerConfig";
     public static final String NATIVE_PRODUCER = "KafkaProducer";
     public static final String NATIVE_PRODUCER_CONFIG = "KafkaProducerConfig";
 
@@ -46,6 +52,11 @@ public class KafkaConstants {
     public static final String CONSUMER_STRUCT_NAME = "Consumer";
     public static final String CONSUMER_CONFIG_STRUCT_NAME = "ConsumerConfig";
     public static final String PRODUCER_STRUCT_NAME = "Producer";
+    public static final String RECORD_METADATA_STRUCT_NAME = "RecordMetadata";
+    public static final String REBALANCE_METRICS_STRUCT_NAME = "RebalanceMetrics";
+
+    public static final String RESOURCE_ON_PARTITIONS_REVOKED = "onPartitionsRevoked";
+    public static final String RESOURCE_ON_PARTITIONS_ASSIGNED = "onPartitionsAssigned";
 
     public static final String ANNOTATION_KAFKA_CONFIGURATION = "configuration";
     public static final String PROPERTIES_ARRAY = "properties";
@@ -56,13 +67,29 @@ public class KafkaConstants {
     public static final String ALIAS_TOPICS = "topics";
     public static final String ALIAS_POLLING_TIMEOUT = "pollingTimeout";
     public static final String ALIAS_POLLING_INTERVAL = "pollingInterval";
+    public static final String ALIAS_POLLING_MODE = "pollingMode";
     public static final String ALIAS_DECOUPLE_PROCESSING = "decoupleProcessing";
+    public static final String ALIAS_MAX_IN_FLIGHT_BATCHES = "maxInFlightBatches";
+    public static final String ALIAS_PARTITIONED_DISPATCH = "partitionedDispatch";
+    public static final String ALIAS_KEY_ORDERED_CONCURRENCY = "keyOrderedConcurrency";
+    public static final String ALIAS_TRANSACTIONAL_ID = "transactionalID";
+    public static final String ALIAS_COALESCE_ASYNC_COMMITS = "coalesceAsyncCommits";
+    public static final String ALIAS_COMMIT_INTERVAL = "commitInterval";
+    public static final String ALIAS_COMMIT_RECORD_COUNT = "commitRecordCount";
+    public static final String ALIAS_VIRTUAL_THREADS = "virtualThreads";
+    public static final String ALIAS_MIN_CONSUMERS = "minConsumers";
+    public static final String ALIAS_MAX_CONSUMERS = "maxConsumers";
+    public static final String ALIAS_SCALE_UP_LAG = "scaleUpLag";
+    public static final String ALIAS_SCALE_DOWN_LAG = "scaleDownLag";
+    public static final String ALIAS_LAG_SAMPLE_INTERVAL = "lagSampleInterval";
+    public static final String ALIAS_DRAIN_TIMEOUT = "drainTimeout";
     public static final String ALIAS_ENABLE_AUTO_COMMIT_CONFIG = "autoCommit";
 
     public static final String ALIAS_AUTO_OFFSET_RESET_CONFIG = "offsetReset";
     public static final String ALIAS_SESSION_TIMEOUT_MS_CONFIG = "sessionTimeout";
     public static final String ALIAS_HEARTBEAT_INTERVAL_MS_CONFIG = "heartBeatInterval";
     public static final String ALIAS_PARTITION_ASSIGNMENT_STRATEGY_CONFIG = "partitionAssignmentStrategy";
+    public static final String PARTITION_ASSIGNMENT_STRATEGY_STICKY = "sticky";
 
     public static final String ALIAS_METADATA_MAX_AGE_CONFIG = "metadataMaxAge";
     public static final String ALIAS_AUTO_COMMIT_INTERVAL_MS_CONFIG = "autoCommitInterval";
@@ -94,6 +121,10 @@ public class KafkaConstants {
     public static final String ALIAS_EXCLUDE_INTERNAL_TOPICS_CONFIG = "excludeInternalTopics";
     public static final String ALIAS_ISOLATION_LEVEL_CONFIG = "isolationLevel";
 
+    public static final String POLLING_MODE_SCHEDULED = "scheduled";
+    public static final String POLLING_MODE_CONTINUOUS = "continuous";
+    public static final String POLLING_MODE_SHARED = "shared";
+
     public static final String DEFAULT_KEY_DESERIALIZER
             = "org.apache.kafka.common.serialization.ByteArrayDeserializer";
     public static final String DEFAULT_VALUE_DESERIALIZER
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.connector.api.ConnectorUtils;
+import org.ballerinalang.connector.api.Resource;
+import org.ballerinalang.model.types.BStructType;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.util.codegen.ProgramFile;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@code KafkaStructTypes} caches struct types of the Kafka package, so that each struct type is looked up once
+ * per service or per program file rather than on each struct creation.
+ */
+public class KafkaStructTypes {
+
+    private static final Map<ProgramFile, KafkaStructTypes> programFileStructTypes =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final Map<String, BStructType> structTypes = new ConcurrentHashMap<>();
+    private final Function<String, BStructType> structTypeResolver;
+
+    private KafkaStructTypes(Function<String, BStructType> structTypeResolver) {
+        this.structTypeResolver = structTypeResolver;
+    }
+
+    /**
+     * Returns struct types resolved against the program of given service resource.
+     *
+     * @param resource service resource.
+     * @return struct types of the Kafka package.
+     */
+    public static KafkaStructTypes getStructTypes(Resource resource) {
+        KafkaStructTypes kafkaStructTypes = new KafkaStructTypes(structName -> ConnectorUtils
+                .createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE, structName).getType());
+        // Struct types used on each dispatch are resolved upfront.
+        kafkaStructTypes.getStructType(KafkaConstants.CONSUMER_STRUCT_NAME);
+        kafkaStructTypes.getStructType(KafkaConstants.CONSUMER_CONFIG_STRUCT_NAME);
+        kafkaStructTypes.getStructType(KafkaConstants.CONSUMER_RECORD_STRUCT_NAME);
+        kafkaStructTypes.getStructType(KafkaConstants.OFFSET_STRUCT_NAME);
+        kafkaStructTypes.getStructType(KafkaConstants.TOPIC_PARTITION_STRUCT_NAME);
+        return kafkaStructTypes;
+    }
+
+    /**
+     * Returns struct types resolved against the program file of given context, shared by all the natives.
+     *
+     * @param context of the native invocation.
+     * @return struct types of the Kafka package.
+     */
+    public static KafkaStructTypes getStructTypes(Context context) {
+        return programFileStructTypes.computeIfAbsent(context.getProgramFile(),
+                programFile -> new KafkaStructTypes(structName -> programFile
+                        .getPackageInfo(KafkaConstants.KAFKA_NATIVE_PACKAGE).getStructInfo(structName).getType()));
+    }
+
+    /**
+     * Returns the struct type of given Kafka package struct.
+     *
+     * @param structName name of the struct.
+     * @return struct type.
+     */
+    public BStructType getStructType(String structName) {
+        return this.structTypes.computeIfAbsent(structName, this.structTypeResolver);
+    }
+
+    /**
+     * Creates a struct of given Kafka package struct.
+     *
+     * @param structName name of the struct.
+     * @return new struct instance.
+     */
+    public BStruct createStruct(String structName) {
+        return new BStruct(getStructType(structName));
+    }
+}
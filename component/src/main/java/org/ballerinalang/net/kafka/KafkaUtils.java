@@ -18,17 +18,22 @@
 
 package org.ballerinalang.net.kafka;
 
+import org.apache.kafka.clients.CommonClientConfigs;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.StickyAssignor;
+import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.ConfigException;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.connector.api.AnnAttrValue;
 import org.ballerinalang.connector.api.Annotation;
 import org.ballerinalang.connector.api.BallerinaConnectorException;
-import org.ballerinalang.connector.api.ConnectorUtils;
 import org.ballerinalang.connector.api.ParamDetail;
 import org.ballerinalang.connector.api.Resource;
 import org.ballerinalang.connector.api.Service;
@@ -36,6 +41,7 @@ import org.ballerinalang.model.types.BArrayType;
 import org.ballerinalang.model.types.BStructType;
 import org.ballerinalang.model.types.TypeTags;
 import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BConnector;
 import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BMap;
 import org.ballerinalang.model.values.BRefType;
@@ -43,16 +49,24 @@ import org.ballerinalang.model.values.BRefValueArray;
 import org.ballerinalang.model.values.BString;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.model.values.BValue;
-import org.ballerinalang.util.codegen.PackageInfo;
-import org.ballerinalang.util.codegen.StructInfo;
+import org.ballerinalang.net.kafka.consumer.AsyncOffsetCommitter;
+import org.ballerinalang.net.kafka.consumer.ConsumedOffsetLedger;
+import org.ballerinalang.net.kafka.consumer.KafkaConsumerCommandQueue;
+import org.ballerinalang.net.kafka.consumer.KafkaRecordArray;
+import org.ballerinalang.net.kafka.consumer.RebalanceMetrics;
+import org.ballerinalang.net.kafka.producer.KafkaProducerHandle;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * Utility class for Kafka Connector Implementation.
@@ -60,7 +74,10 @@ import java.util.Properties;
 public class KafkaUtils {
 
     public static Resource extractKafkaResource(Service service) throws BallerinaConnectorException {
-        Resource[] resources = service.getResources();
+        // Rebalance resources are optional and dispatched separately from records.
+        Resource[] resources = Arrays.stream(service.getResources())
+                .filter(resource -> !isRebalanceResource(resource))
+                .toArray(Resource[]::new);
 
         if (resources.length == 0) {
             throw new BallerinaException("No resources found to handle the Kafka records in " + service.getName());
@@ -90,6 +107,50 @@ public class KafkaUtils {
         return resources[0];
     }
 
+    /**
+     * Returns the rebalance resource of given name, which is invoked with the consumer and the partitions revoked
+     * from or assigned to it.
+     *
+     * @param service      Kafka service.
+     * @param resourceName name of the rebalance resource.
+     * @return rebalance resource, or null if the service does not have one.
+     */
+    public static Resource extractRebalanceResource(Service service, String resourceName) {
+        for (Resource resource : service.getResources()) {
+            if (!resourceName.equals(resource.getName())) {
+                continue;
+            }
+            List<ParamDetail> paramDetails = resource.getParamDetails();
+            if (paramDetails.size() != 2) {
+                throw new BallerinaException("Kafka resource " + resourceName
+                        + " signature does not comply with param standard sequence.");
+            }
+            validateConsumerParam(paramDetails.get(0));
+            validateTopicPartitionsParam(paramDetails.get(1));
+            return resource;
+        }
+        return null;
+    }
+
+    private static boolean isRebalanceResource(Resource resource) {
+        return KafkaConstants.RESOURCE_ON_PARTITIONS_REVOKED.equals(resource.getName())
+                || KafkaConstants.RESOURCE_ON_PARTITIONS_ASSIGNED.equals(resource.getName());
+    }
+
+    private static void validateTopicPartitionsParam(ParamDetail param) {
+        if (param.getVarType().getTag() == TypeTags.ARRAY_TAG) {
+            BArrayType array = (BArrayType) param.getVarType();
+            if (array.getElementType().getTag() == TypeTags.STRUCT_TAG) {
+                BStructType type = (BStructType) array.getElementType();
+                if (type.getPackagePath().equals(KafkaConstants.KAFKA_NATIVE_PACKAGE) &&
+                        type.getName().equals(KafkaConstants.TOPIC_PARTITION_STRUCT_NAME)) {
+                    return;
+                }
+            }
+        }
+        throw new BallerinaException("Resource signature validation failed for param at index: 1.");
+    }
+
     private static void validateConsumerParam(ParamDetail param) {
         if (param.getVarType().getTag() == TypeTags.STRUCT_TAG) {
             BStructType type = (BStructType) param.getVarType();
@@ -139,48 +200,21 @@ public class KafkaUtils {
 
     public static BValue[] getSignatureParameters(Resource resource,
                                                   ConsumerRecords<byte[], byte[]> records,
-                                                  KafkaConsumer<byte[], byte[]> kafkaConsumer) {
+                                                  BStruct consumerStruct,
+                                                  KafkaStructTypes structTypes) {
         List<ParamDetail> paramDetails = resource.getParamDetails();
         BValue[] bValues = new BValue[paramDetails.size()];
         if (paramDetails.size() > 0) {
-            bValues[0] = createConsumerStruct(resource, kafkaConsumer);
+            bValues[0] = consumerStruct;
             if (paramDetails.size() > 1) {
-                bValues[1] = createRecordStructArray(resource, records);
+                bValues[1] = new KafkaRecordArray(records,
+                        structTypes.getStructType(KafkaConstants.CONSUMER_RECORD_STRUCT_NAME));
             }
         }
         return bValues;
     }
 
-    private static BRefValueArray createRecordStructArray(Resource resource,
-                                                          ConsumerRecords<byte[], byte[]> records) {
-        // Create records struct array.
-        List<BStruct> recordsList = new ArrayList<>();
-        records.forEach(record -> {
-            BStruct recordStruct = ConnectorUtils.createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE,
-                    KafkaConstants.CONSUMER_RECORD_STRUCT_NAME);
-            recordStruct.setBlobField(0, record.key());
-            recordStruct.setBlobField(1, record.value());
-            recordStruct.setIntField(0, record.offset());
-            recordStruct.setIntField(1, record.partition());
-            recordStruct.setIntField(2, record.timestamp());
-            recordStruct.setStringField(0, record.topic());
-            recordsList.add(recordStruct);
-        });
-
-        return new BRefValueArray(recordsList.toArray(new BRefType[0]),
-                ConnectorUtils.createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE,
-                        KafkaConstants.CONSUMER_RECORD_STRUCT_NAME).getType());
-    }
-
-    private static BStruct createConsumerStruct(Resource resource, KafkaConsumer<byte[], byte[]> kafkaConsumer) {
-        // Create consumer struct.
-        BStruct consumerStruct = ConnectorUtils.createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE,
-                KafkaConstants.CONSUMER_STRUCT_NAME);
-        consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER, kafkaConsumer);
-        return consumerStruct;
-    }
-
-    private static BRefValueArray createOffsetStructArray(Resource resource,
+    private static BRefValueArray createOffsetStructArray(KafkaStructTypes structTypes,
                                                           ConsumerRecords<byte[], byte[]> records) {
         // Create offsets struct array.
         Map<TopicPartition, Long> partitionToUncommittedOffsetMap = new HashMap<>();
@@ -193,13 +227,23 @@ public class KafkaUtils {
         for (Map.Entry<TopicPartition, Long> e : partitionToUncommittedOffsetMap.entrySet()) {
             partitionToMetadataMap.put(e.getKey(), new OffsetAndMetadata(e.getValue() + 1));
         }
-
+        return createOffsetStructArray(structTypes, partitionToMetadataMap);
+    }
+
+    /**
+     * Creates an Offset struct array from given offsets.
+     *
+     * @param structTypes            struct types of the Kafka package.
+     * @param partitionToMetadataMap offsets per partition.
+     * @return Offset struct array.
+     */
+    public static BRefValueArray createOffsetStructArray(KafkaStructTypes structTypes,
+                                                         Map<TopicPartition, OffsetAndMetadata>
+                                                                 partitionToMetadataMap) {
         List<BStruct> offsetList = new ArrayList<>();
         partitionToMetadataMap.entrySet().forEach(offset -> {
-            BStruct offsetStruct = ConnectorUtils.createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE,
-                    KafkaConstants.OFFSET_STRUCT_NAME);
-            BStruct partitionStruct = ConnectorUtils.createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE,
-                    KafkaConstants.TOPIC_PARTITION_STRUCT_NAME);
+            BStruct offsetStruct = structTypes.createStruct(KafkaConstants.OFFSET_STRUCT_NAME);
+            BStruct partitionStruct = structTypes.createStruct(KafkaConstants.TOPIC_PARTITION_STRUCT_NAME);
             partitionStruct.setStringField(0, offset.getKey().topic());
             partitionStruct.setIntField(0, offset.getKey().partition());
             offsetStruct.setRefField(0, partitionStruct);
@@ -208,21 +252,63 @@ public class KafkaUtils {
         });
 
         return new BRefValueArray(offsetList.toArray(new BRefType[0]),
-                ConnectorUtils.createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE,
-                        KafkaConstants.OFFSET_STRUCT_NAME).getType());
-    }
-
-    private static BStruct createConsumerStruct(Resource resource,
-                                                KafkaConsumer<byte[], byte[]> kafkaConsumer,
-                                                String groupId) {
+                structTypes.getStructType(KafkaConstants.OFFSET_STRUCT_NAME));
+    }
+
+    /**
+     * Creates a TopicPartition struct array from given partitions.
+     *
+     * @param structTypes struct types of the Kafka package.
+     * @param partitions  topic partitions.
+     * @return TopicPartition struct array.
+     */
+    public static BRefValueArray createPartitionStructArray(KafkaStructTypes structTypes,
+                                                            Collection<TopicPartition> partitions) {
+        List<BStruct> partitionList = new ArrayList<>();
+        partitions.forEach(partition -> {
+            BStruct partitionStruct = structTypes.createStruct(KafkaConstants.TOPIC_PARTITION_STRUCT_NAME);
+            partitionStruct.setStringField(0, partition.topic());
+            partitionStruct.setIntField(0, partition.partition());
+            partitionList.add(partitionStruct);
+        });
+        return new BRefValueArray(partitionList.toArray(new BRefType[0]),
+                structTypes.getStructType(KafkaConstants.TOPIC_PARTITION_STRUCT_NAME));
+    }
+
+    /**
+     * Creates the consumer struct which is passed to the resource on each dispatch of a Kafka consumer.
+     *
+     * @param structTypes      struct types of the service.
+     * @param kafkaConsumer    native Kafka consumer.
+     * @param commandQueue     queue which serializes consumer access to the polling thread, if any.
+     * @param rebalanceMetrics pause durations of the rebalance callbacks of the consumer.
+     * @param groupId          group id of the consumer.
+     * @return consumer struct.
+     */
+    public static BStruct createConsumerStruct(KafkaStructTypes structTypes,
+                                               KafkaConsumer<byte[], byte[]> kafkaConsumer,
+                                               KafkaConsumerCommandQueue commandQueue,
+                                               KafkaProducer<byte[], byte[]> transactionProducer,
+                                               ConsumedOffsetLedger offsetLedger,
+                                               AsyncOffsetCommitter offsetCommitter,
+                                               RebalanceMetrics rebalanceMetrics,
+                                               String groupId) {
         // Create consumer struct.
-        BStruct consumerStruct = ConnectorUtils.createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE,
-                KafkaConstants.CONSUMER_STRUCT_NAME);
+        BStruct consumerStruct = structTypes.createStruct(KafkaConstants.CONSUMER_STRUCT_NAME);
         consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER, kafkaConsumer);
+        if (commandQueue != null) {
+            consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_COMMAND_QUEUE, commandQueue);
+        }
+        if (transactionProducer != null) {
+            consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_TRANSACTION_PRODUCER, transactionProducer);
+        }
+        consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_OFFSET_LEDGER, offsetLedger);
+        if (offsetCommitter != null) {
+            consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_OFFSET_COMMITTER, offsetCommitter);
+        }
+        consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_REBALANCE_METRICS, rebalanceMetrics);
 
-        BStruct consumerConfigStruct = ConnectorUtils.createStruct(resource, KafkaConstants.KAFKA_NATIVE_PACKAGE,
-                KafkaConstants.CONSUMER_CONFIG_STRUCT_NAME);
-        consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER, kafkaConsumer);
+        BStruct consumerConfigStruct = structTypes.createStruct(KafkaConstants.CONSUMER_CONFIG_STRUCT_NAME);
         consumerConfigStruct.setStringField(1, groupId);
 
         consumerStruct.setRefField(0, consumerConfigStruct);
@@ -231,16 +317,18 @@ public class KafkaUtils {
 
     public static BValue[] getSignatureParameters(Resource resource,
                                                   ConsumerRecords<byte[], byte[]> records,
-                                                  KafkaConsumer<byte[], byte[]> kafkaConsumer,
-                                                  String groupId) {
+                                                  BStruct consumerStruct,
+                                                  String groupId,
+                                                  KafkaStructTypes structTypes) {
         List<ParamDetail> paramDetails = resource.getParamDetails();
         BValue[] bValues = new BValue[paramDetails.size()];
         if (paramDetails.size() > 0) {
-            bValues[0] = createConsumerStruct(resource, kafkaConsumer, groupId);
+            bValues[0] = consumerStruct;
             if (paramDetails.size() > 1) {
-                bValues[1] = createRecordStructArray(resource, records);
+                bValues[1] = new KafkaRecordArray(records,
+                        structTypes.getStructType(KafkaConstants.CONSUMER_RECORD_STRUCT_NAME));
                 if (paramDetails.size() > 2) {
-                    bValues[2] = createOffsetStructArray(resource, records);
+                    bValues[2] = createOffsetStructArray(structTypes, records);
                     if (paramDetails.size() > 3) {
                         if (groupId == null) {
                             bValues[3] = null;
@@ -262,7 +350,22 @@ public class KafkaUtils {
         addIntParamIfPresent(KafkaConstants.ALIAS_CONCURRENT_CONSUMERS, kafkaConfig, configParams);
         addIntParamIfPresent(KafkaConstants.ALIAS_POLLING_TIMEOUT, kafkaConfig, configParams);
         addIntParamIfPresent(KafkaConstants.ALIAS_POLLING_INTERVAL, kafkaConfig, configParams);
+        addStringParamIfPresent(KafkaConstants.ALIAS_POLLING_MODE, kafkaConfig, configParams);
         addBooleanParamIfPresent(KafkaConstants.ALIAS_DECOUPLE_PROCESSING, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_MAX_IN_FLIGHT_BATCHES, kafkaConfig, configParams);
+        addBooleanParamIfPresent(KafkaConstants.ALIAS_PARTITIONED_DISPATCH, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_KEY_ORDERED_CONCURRENCY, kafkaConfig, configParams);
+        addStringParamIfPresent(KafkaConstants.ALIAS_TRANSACTIONAL_ID, kafkaConfig, configParams);
+        addBooleanParamIfPresent(KafkaConstants.ALIAS_COALESCE_ASYNC_COMMITS, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_COMMIT_INTERVAL, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_COMMIT_RECORD_COUNT, kafkaConfig, configParams);
+        addBooleanParamIfPresent(KafkaConstants.ALIAS_VIRTUAL_THREADS, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_MIN_CONSUMERS, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_MAX_CONSUMERS, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_SCALE_UP_LAG, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_SCALE_DOWN_LAG, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_LAG_SAMPLE_INTERVAL, kafkaConfig, configParams);
+        addIntParamIfPresent(KafkaConstants.ALIAS_DRAIN_TIMEOUT, kafkaConfig, configParams);
 
         addStringParamIfPresent(KafkaConstants.ALIAS_BOOTSTRAP_SERVERS_CONFIG, kafkaConfig, configParams);
         addStringParamIfPresent(KafkaConstants.ALIAS_GROUP_ID_CONFIG, kafkaConfig, configParams);
@@ -304,11 +407,22 @@ public class KafkaUtils {
         addStringParamIfPresent(KafkaConstants.ALIAS_ISOLATION_LEVEL_CONFIG, kafkaConfig, configParams);
 
         processPropertiesArray(kafkaConfig, configParams);
+        resolvePartitionAssignmentStrategy(configParams);
         updateMappedParameters(configParams);
         processDefaultConsumerProperties(configParams);
         return configParams;
     }
 
+    private static void resolvePartitionAssignmentStrategy(Properties configParams) {
+        // Sticky assignment keeps partitions on their consumers across rebalances, so that their state is retained.
+        for (String paramName : new String[]{KafkaConstants.ALIAS_PARTITION_ASSIGNMENT_STRATEGY_CONFIG,
+                ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG}) {
+            if (KafkaConstants.PARTITION_ASSIGNMENT_STRATEGY_STICKY.equals(configParams.get(paramName))) {
+                configParams.put(paramName, StickyAssignor.class.getName());
+            }
+        }
+    }
+
     public static Properties processKafkaConsumerConfig(BMap bMap) {
         Properties configParams = new Properties();
 
@@ -343,6 +457,7 @@ public class KafkaUtils {
         addBooleanParamIfPresent(ConsumerConfig.EXCLUDE_INTERNAL_TOPICS_CONFIG, bMap, configParams);
         addStringParamIfPresent(ConsumerConfig.ISOLATION_LEVEL_CONFIG, bMap, configParams);
 
+        resolvePartitionAssignmentStrategy(configParams);
         processDefaultConsumerProperties(configParams);
         return configParams;
     }
@@ -384,6 +499,7 @@ public class KafkaUtils {
         addBooleanParamIfPresent(ConsumerConfig.CHECK_CRCS_CONFIG, bStruct, configParams, 1, true);
         addBooleanParamIfPresent(ConsumerConfig.EXCLUDE_INTERNAL_TOPICS_CONFIG, bStruct, configParams, 2, true);
 
+        resolvePartitionAssignmentStrategy(configParams);
         processDefaultConsumerProperties(configParams);
         return configParams;
     }
@@ -467,6 +583,30 @@ public class KafkaUtils {
         return configParams;
     }
 
+    /**
+     * Creates properties of the transactional producer bound to a service consumer. Consumer properties which are
+     * producer properties as well, i.e. brokers, security, client id and user provided properties, are carried over
+     * so that the producer connects to the same cluster the same way as the consumer.
+     *
+     * @param consumerConfig  properties of the service consumer.
+     * @param transactionalId transactional id of the producer.
+     * @return producer properties.
+     */
+    public static Properties processTransactionProducerConfig(Properties consumerConfig, String transactionalId) {
+        Properties configParams = new Properties();
+        Set<String> producerConfigNames = ProducerConfig.configNames();
+        for (Map.Entry<Object, Object> param : consumerConfig.entrySet()) {
+            // Interceptors of the consumer do not apply to records being produced.
+            if (producerConfigNames.contains(param.getKey())
+                    && !ProducerConfig.INTERCEPTOR_CLASSES_CONFIG.equals(param.getKey())) {
+                configParams.put(param.getKey(), param.getValue());
+            }
+        }
+        configParams.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+        processDefaultProducerProperties(configParams);
+        return configParams;
+    }
+
     public static void processDefaultConsumerProperties(Properties configParams) {
         configParams.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, KafkaConstants.DEFAULT_KEY_DESERIALIZER);
         configParams.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, KafkaConstants.DEFAULT_VALUE_DESERIALIZER);
@@ -497,17 +637,47 @@ public class KafkaUtils {
     }
 
     private static void updateMappedParameters(Properties configParams) {
-        Iterator<Map.Entry<Object, Object>> iterator = configParams.entrySet().iterator();
-        Properties tempProps = new Properties();
-        while (iterator.hasNext()) {
-            Map.Entry<Object, Object> entry = iterator.next();
-            String mappedParam = KafkaConstants.MAPPING_PARAMETERS.get(entry.getKey());
-            if (mappedParam != null) {
-                tempProps.put(mappedParam, entry.getValue());
-                iterator.remove();
+        // Aliases and the Kafka parameters they map to are disjoint, hence they are renamed in place.
+        for (Map.Entry<String, String> mapping : KafkaConstants.MAPPING_PARAMETERS.entrySet()) {
+            Object value = configParams.remove(mapping.getKey());
+            if (value != null) {
+                configParams.put(mapping.getValue(), value);
             }
         }
-        configParams.putAll(tempProps);
+    }
+
+    /**
+     * Validates a string valued Kafka client parameter, which should be one of the given values.
+     *
+     * @param configParams Kafka client parameters.
+     * @param paramName    name of the parameter, which is not validated if it is not set.
+     * @param validValues  values accepted by the Kafka client.
+     * @throws ConfigException if the value is not accepted.
+     */
+    public static void validateOneOf(Properties configParams, String paramName, Collection<String> validValues) {
+        Object value = configParams.get(paramName);
+        if (value != null && !validValues.contains(value)) {
+            throw new ConfigException(paramName, value, "String must be one of: " + String.join(", ", validValues));
+        }
+    }
+
+    /**
+     * Validates an integer valued Kafka client parameter, which should not be negative. Socket buffer sizes can be
+     * -1 to use the defaults of the OS.
+     *
+     * @param paramName name of the Kafka client parameter.
+     * @param value     value of the parameter.
+     * @throws ConfigException if the value is out of range.
+     */
+    public static void validateNonNegative(String paramName, Object value) {
+        if (!(value instanceof Integer)) {
+            return;
+        }
+        int minValue = CommonClientConfigs.SEND_BUFFER_CONFIG.equals(paramName)
+                || CommonClientConfigs.RECEIVE_BUFFER_CONFIG.equals(paramName) ? -1 : 0;
+        if ((Integer) value < minValue) {
+            throw new ConfigException(paramName, value, "Value must be at least " + minValue);
+        }
     }
 
     private static void addStringArrayParamIfPresent(String paramName, Annotation kafkaConfig,
@@ -597,13 +767,154 @@ public class KafkaUtils {
         }
     }
 
+    /**
+     * Creates a Kafka producer record from a ProducerRecord struct.
+     *
+     * @param producerRecord ProducerRecord struct.
+     * @return Kafka producer record.
+     */
+    public static ProducerRecord<byte[], byte[]> createProducerRecord(BStruct producerRecord) {
+        byte[] key = producerRecord.getBlobField(0);
+        byte[] value = producerRecord.getBlobField(1);
+        String topic = producerRecord.getStringField(0);
+        long partition = producerRecord.getIntField(0);
+        long timestamp = producerRecord.getIntField(1);
+        // Default values are set, so we can safely assume them as null.
+        return new ProducerRecord<>(topic, partition == -1 ? null : (int) partition,
+                timestamp == -1 ? null : timestamp, key, value);
+    }
+
+    /**
+     * Creates an error struct without a context, for callbacks invoked by Kafka client threads.
+     *
+     * @param errorType error struct type, resolved on the thread of the native invocation.
+     * @param message   error message.
+     * @return error struct.
+     */
+    public static BStruct createErrorStruct(BStructType errorType, String message) {
+        BStruct error = new BStruct(errorType);
+        error.setStringField(0, message);
+        return error;
+    }
+
+    /**
+     * Creates a RecordMetadata struct from the metadata of an acknowledged record.
+     *
+     * @param recordMetadataType resolved RecordMetadata struct type.
+     * @param metadata           metadata of the acknowledged record.
+     * @return RecordMetadata struct.
+     */
+    public static BStruct createRecordMetadataStruct(BStructType recordMetadataType, RecordMetadata metadata) {
+        BStruct metadataStruct = new BStruct(recordMetadataType);
+        metadataStruct.setStringField(0, metadata.topic());
+        metadataStruct.setIntField(0, metadata.partition());
+        metadataStruct.setIntField(1, metadata.offset());
+        metadataStruct.setIntField(2, metadata.timestamp());
+        return metadataStruct;
+    }
+
+    /**
+     * Returns the producer handle attached to given producer connector at connector initialization.
+     *
+     * @param producerConnector producer connector instance.
+     * @return producer handle of the connector.
+     */
+    public static KafkaProducerHandle getProducerHandle(BConnector producerConnector) {
+        KafkaProducerHandle producerHandle = (KafkaProducerHandle) ((BStruct) producerConnector.getRefField(2))
+                .getNativeData(KafkaConstants.NATIVE_PRODUCER);
+        if (producerHandle == null) {
+            throw new BallerinaException("Kafka producer has not been initialized properly.");
+        }
+        return producerHandle;
+    }
+
     public static BStruct createKafkaPackageStruct(Context context, String structName) {
-        PackageInfo kafkaPackageInfo = context.getProgramFile()
-                .getPackageInfo(KafkaConstants.KAFKA_NATIVE_PACKAGE);
-        StructInfo structInfo = kafkaPackageInfo
-                .getStructInfo(structName);
-        BStructType structType = structInfo.getType();
-        return new BStruct(structType);
+        return KafkaStructTypes.getStructTypes(context).createStruct(structName);
+    }
+
+    public static BStructType getKafkaPackageStructType(Context context, String structName) {
+        return KafkaStructTypes.getStructTypes(context).getStructType(structName);
+    }
+
+    /**
+     * Returns the ledger of consumed positions attached to the consumer struct.
+     *
+     * @param consumerStruct consumer struct which native consumer is attached to.
+     * @return offset ledger of the consumer, or null if the consumer is not connected.
+     */
+    public static ConsumedOffsetLedger getOffsetLedger(BStruct consumerStruct) {
+        return (ConsumedOffsetLedger) consumerStruct.getNativeData(KafkaConstants.NATIVE_CONSUMER_OFFSET_LEDGER);
+    }
+
+    /**
+     * Returns the committer which coalesces asynchronous commits of the consumer, if coalescing is enabled.
+     *
+     * @param consumerStruct consumer struct which native consumer is attached to.
+     * @return offset committer of the consumer, or null if asynchronous commits are not coalesced.
+     */
+    public static AsyncOffsetCommitter getAsyncOffsetCommitter(BStruct consumerStruct) {
+        return (AsyncOffsetCommitter) consumerStruct.getNativeData(KafkaConstants.NATIVE_CONSUMER_OFFSET_COMMITTER);
+    }
+
+    /**
+     * Returns the pause durations of the rebalance callbacks of the consumer, if any callbacks are registered.
+     *
+     * @param consumerStruct consumer struct.
+     * @return rebalance metrics, or null if rebalance callbacks are not registered.
+     */
+    public static RebalanceMetrics getRebalanceMetrics(BStruct consumerStruct) {
+        return (RebalanceMetrics) consumerStruct.getNativeData(KafkaConstants.NATIVE_CONSUMER_REBALANCE_METRICS);
+    }
+
+    /**
+     * Returns offsets given as an Offset struct array, per partition.
+     *
+     * @param offsets Offset struct array.
+     * @return offsets per partition.
+     */
+    public static Map<TopicPartition, OffsetAndMetadata> getPartitionToMetadataMap(BRefValueArray offsets) {
+        Map<TopicPartition, OffsetAndMetadata> partitionToMetadataMap = new HashMap<>();
+        if (offsets != null) {
+            for (int counter = 0; counter < offsets.size(); counter++) {
+                BStruct offset = (BStruct) offsets.get(counter);
+                BStruct partition = (BStruct) offset.getRefField(0);
+                partitionToMetadataMap.put(new TopicPartition(partition.getStringField(0),
+                        (int) partition.getIntField(0)), new OffsetAndMetadata(offset.getIntField(0)));
+            }
+        }
+        return partitionToMetadataMap;
+    }
+
+    /**
+     * Executes given command against the native consumer attached to the consumer struct. If the consumer is owned
+     * by a polling thread, command is queued to the polling thread and caller waits for its completion.
+     *
+     * @param consumerStruct consumer struct which native consumer is attached to.
+     * @param command        to be executed against the native consumer.
+     */
+    public static void executeConsumerCommand(BStruct consumerStruct, Runnable command) {
+        KafkaConsumerCommandQueue commandQueue = (KafkaConsumerCommandQueue) consumerStruct
+                .getNativeData(KafkaConstants.NATIVE_CONSUMER_COMMAND_QUEUE);
+        if (commandQueue == null) {
+            command.run();
+        } else {
+            commandQueue.execute(command);
+        }
+    }
+
+    /**
+     * Executes given query against the native consumer attached to the consumer struct in the same way as
+     * {@link #executeConsumerCommand(BStruct, Runnable)}, and returns its result.
+     *
+     * @param consumerStruct consumer struct which native consumer is attached to.
+     * @param query          to be executed against the native consumer.
+     * @param <T>            type of the result.
+     * @return result of the query.
+     */
+    public static <T> T executeConsumerQuery(BStruct consumerStruct, Supplier<T> query) {
+        AtomicReference<T> result = new AtomicReference<>();
+        executeConsumerCommand(consumerStruct, () -> result.set(query.get()));
+        return result.get();
     }
 
     public static ArrayList<TopicPartition> getTopicPartitionList(BRefValueArray partitions) {
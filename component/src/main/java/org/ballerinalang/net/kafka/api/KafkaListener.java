@@ -18,21 +18,61 @@ package org.ballerinalang.net.kafka.api;
 
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.TopicPartition;
+import org.ballerinalang.net.kafka.consumer.AsyncOffsetCommitter;
+import org.ballerinalang.net.kafka.consumer.ConsumedOffsetLedger;
+import org.ballerinalang.net.kafka.consumer.KafkaConsumerCommandQueue;
+import org.ballerinalang.net.kafka.consumer.RebalanceMetrics;
+import org.ballerinalang.net.kafka.future.KafkaDispatchFutureListener;
 import org.ballerinalang.net.kafka.future.KafkaPollCycleFutureListener;
 
+import java.util.Collection;
+
 /**
  * This interface defines listener which can be registered, to retrieve Kafka records returned from single poll cycle.
  */
 public interface KafkaListener {
 
     /**
-     * For each poll cycle, it will trigger invocation to this method dispatching polled kafka records.
+     * Once a Kafka consumer starts polling, it will trigger invocation to this method before any records are
+     * dispatched.
+     *
+     * @param kafkaConsumer consumer which starts polling.
+     * @param commandQueue        queue which serializes consumer access to the polling thread, if any.
+     * @param transactionProducer producer which transactions of record batches are run on, if any.
+     * @param offsetLedger        positions of the consumer as of the records polled.
+     * @param offsetCommitter     committer which coalesces asynchronous commits, if enabled.
+     * @param rebalanceMetrics    pause durations of the rebalance callbacks of the consumer.
+     * @param groupID             of consumer
+     */
+    void onConsumerStarted(KafkaConsumer kafkaConsumer,
+                           KafkaConsumerCommandQueue commandQueue,
+                           KafkaProducer transactionProducer,
+                           ConsumedOffsetLedger offsetLedger,
+                           AsyncOffsetCommitter offsetCommitter,
+                           RebalanceMetrics rebalanceMetrics,
+                           String groupID);
+
+    /**
+     * Once a Kafka consumer is closed, it will trigger invocation to this method.
+     *
+     * @param kafkaConsumer consumer which is closed.
+     */
+    void onConsumerClosed(KafkaConsumer kafkaConsumer);
+
+    /**
+     * For each poll cycle, it will trigger invocation to this method dispatching polled kafka records. Records are
+     * processed while the consumer keeps polling, hence consumer access of the resources goes through the command
+     * queue given on {@link #onConsumerStarted}.
      *
      * @param records       Kafka records.
      * @param kafkaConsumer consumer on which poll is called upon.
+     * @param listener      which gets notified once dispatched records are processed.
      */
     void onRecordsReceived(ConsumerRecords records,
-                           KafkaConsumer kafkaConsumer);
+                           KafkaConsumer kafkaConsumer,
+                           KafkaDispatchFutureListener listener);
 
     /**
      * For each poll cycle, it will trigger invocation to this method dispatching polled kafka records.
@@ -47,6 +87,36 @@ public interface KafkaListener {
                            KafkaPollCycleFutureListener listener,
                            String groupID);
 
+    /**
+     * Once partitions are revoked from a Kafka consumer and not assigned back by the rebalance, it will trigger
+     * invocation to this method.
+     *
+     * @param kafkaConsumer consumer which the partitions are revoked from.
+     * @param commandQueue  queue which serializes consumer access to the polling thread during the rebalance.
+     * @param partitions    revoked partitions.
+     * @param listener      which gets notified once the dispatched resource is processed.
+     * @return true if a resource is dispatched, false if there is nothing to dispatch.
+     */
+    boolean onPartitionsRevoked(KafkaConsumer kafkaConsumer,
+                                KafkaConsumerCommandQueue commandQueue,
+                                Collection<TopicPartition> partitions,
+                                KafkaPollCycleFutureListener listener);
+
+    /**
+     * Once partitions which the Kafka consumer did not own are assigned to it, it will trigger invocation to this
+     * method before any records of the partitions are dispatched.
+     *
+     * @param kafkaConsumer consumer which the partitions are assigned to.
+     * @param commandQueue  queue which serializes consumer access to the polling thread during the rebalance.
+     * @param partitions    assigned partitions.
+     * @param listener      which gets notified once the dispatched resource is processed.
+     * @return true if a resource is dispatched, false if there is nothing to dispatch.
+     */
+    boolean onPartitionsAssigned(KafkaConsumer kafkaConsumer,
+                                 KafkaConsumerCommandQueue commandQueue,
+                                 Collection<TopicPartition> partitions,
+                                 KafkaPollCycleFutureListener listener);
+
     /**
      * If there are errors, Kafka connector will trigger this method.
      *
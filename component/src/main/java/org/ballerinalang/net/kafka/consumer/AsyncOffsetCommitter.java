@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code AsyncOffsetCommitter} coalesces asynchronous offset commits of a Kafka consumer. While a commit is in
+ * flight, offsets requested by further commits are merged and sent as a single commit once it completes. Offsets
+ * requested so far are committed synchronously when partitions are revoked and when the consumer is closed, so that
+ * coalesced commits are not lost. Commits are expected to be issued from the thread which polls the consumer.
+ */
+public class AsyncOffsetCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncOffsetCommitter.class);
+
+    private final KafkaConsumer<byte[], byte[]> kafkaConsumer;
+    private final Map<TopicPartition, OffsetAndMetadata> pendingOffsets = new HashMap<>();
+    // Callbacks of requested commits along with the offsets each of them requested.
+    private final List<PendingCommit> pendingCommits = new ArrayList<>();
+    // Offsets requested but not yet known to be committed, committed synchronously on revoke and close.
+    private final Map<TopicPartition, OffsetAndMetadata> uncommittedOffsets = new HashMap<>();
+    private boolean commitInFlight = false;
+
+    public AsyncOffsetCommitter(KafkaConsumer<byte[], byte[]> kafkaConsumer) {
+        this.kafkaConsumer = kafkaConsumer;
+    }
+
+    /**
+     * Commits given offsets asynchronously, or merges them into the next commit if a commit is in flight.
+     *
+     * @param offsets  to be committed.
+     * @param callback invoked once the commit carrying the offsets completes, can be null.
+     */
+    public synchronized void commitAsync(Map<TopicPartition, OffsetAndMetadata> offsets,
+                                         OffsetCommitCallback callback) {
+        this.uncommittedOffsets.putAll(offsets);
+        this.pendingOffsets.putAll(offsets);
+        if (callback != null) {
+            this.pendingCommits.add(new PendingCommit(new HashMap<>(offsets), callback));
+        }
+        if (!this.commitInFlight) {
+            sendPendingOffsets();
+        }
+    }
+
+    /**
+     * Synchronously commits offsets requested for given partitions. Pending callbacks are completed with the offsets
+     * they requested once none of their partitions are left pending.
+     *
+     * @param partitions to be committed, or null to commit all the partitions.
+     */
+    public synchronized void flush(Collection<TopicPartition> partitions) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>(this.uncommittedOffsets);
+        if (partitions != null) {
+            offsets.keySet().retainAll(partitions);
+        }
+        if (offsets.isEmpty()) {
+            return;
+        }
+        KafkaException commitException = null;
+        try {
+            KafkaConsumerCommandQueue.runIgnoringStaleWakeup(() -> this.kafkaConsumer.commitSync(offsets));
+        } catch (KafkaException e) {
+            commitException = e;
+            logger.error("Failed to commit offsets " + offsets + ": " + e.getMessage(), e);
+        }
+        this.uncommittedOffsets.keySet().removeAll(offsets.keySet());
+        this.pendingOffsets.keySet().removeAll(offsets.keySet());
+        List<PendingCommit> completedCommits = new ArrayList<>();
+        for (PendingCommit pendingCommit : this.pendingCommits) {
+            if (Collections.disjoint(pendingCommit.offsets.keySet(), this.pendingOffsets.keySet())) {
+                completedCommits.add(pendingCommit);
+            }
+        }
+        this.pendingCommits.removeAll(completedCommits);
+        for (PendingCommit completedCommit : completedCommits) {
+            completedCommit.complete(commitException);
+        }
+    }
+
+    private void sendPendingOffsets() {
+        if (this.pendingOffsets.isEmpty()) {
+            return;
+        }
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>(this.pendingOffsets);
+        List<PendingCommit> commits = new ArrayList<>(this.pendingCommits);
+        this.pendingOffsets.clear();
+        this.pendingCommits.clear();
+        this.commitInFlight = true;
+        this.kafkaConsumer.commitAsync(offsets, (committedOffsets, exception) -> {
+            synchronized (this) {
+                this.commitInFlight = false;
+                if (exception == null) {
+                    // Partitions which got newer offsets requested in the meantime are left uncommitted.
+                    committedOffsets.forEach(this.uncommittedOffsets::remove);
+                } else {
+                    logger.error("Failed to commit offsets " + offsets + ": " + exception.getMessage(), exception);
+                }
+                for (PendingCommit commit : commits) {
+                    commit.complete(exception);
+                }
+                sendPendingOffsets();
+            }
+        });
+    }
+
+    /**
+     * Callback of a requested commit, completed with the offsets it requested even if they are committed along
+     * with the offsets of other commits.
+     */
+    private static class PendingCommit {
+
+        private final Map<TopicPartition, OffsetAndMetadata> offsets;
+        private final OffsetCommitCallback callback;
+
+        private PendingCommit(Map<TopicPartition, OffsetAndMetadata> offsets, OffsetCommitCallback callback) {
+            this.offsets = offsets;
+            this.callback = callback;
+        }
+
+        private void complete(Exception exception) {
+            this.callback.onComplete(this.offsets, exception);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@code ConsumedOffsetLedger} keeps the position of a Kafka consumer per partition, as of the records it has
+ * returned. Positions can be read from any thread without accessing the consumer, which is not thread safe and
+ * would otherwise require a round trip per partition.
+ */
+public class ConsumedOffsetLedger {
+
+    private final Map<TopicPartition, Long> positions = new ConcurrentHashMap<>();
+
+    /**
+     * Records positions following the records returned by a poll.
+     *
+     * @param records returned by the consumer.
+     */
+    public void record(ConsumerRecords<byte[], byte[]> records) {
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<byte[], byte[]>> partitionRecords = records.records(partition);
+            this.positions.put(partition, partitionRecords.get(partitionRecords.size() - 1).offset() + 1);
+        }
+    }
+
+    /**
+     * Records the position of a partition which the consumer has been seeked to.
+     *
+     * @param partition which the consumer is seeked on.
+     * @param offset    new position of the partition.
+     */
+    public void seek(TopicPartition partition, long offset) {
+        this.positions.put(partition, offset);
+    }
+
+    /**
+     * Removes positions of given partitions, e.g. when the partitions are seeked to an offset not known locally.
+     *
+     * @param partitions to be removed.
+     */
+    public void remove(Collection<TopicPartition> partitions) {
+        partitions.forEach(this.positions::remove);
+    }
+
+    /**
+     * Removes positions of partitions which are not in given assignment.
+     *
+     * @param assignment current partition assignment of the consumer.
+     */
+    public void retain(Collection<TopicPartition> assignment) {
+        this.positions.keySet().retainAll(assignment);
+    }
+
+    /**
+     * Removes all the positions.
+     */
+    public void clear() {
+        this.positions.clear();
+    }
+
+    /**
+     * Returns the positions as offsets to be committed.
+     *
+     * @return offset to be committed per partition.
+     */
+    public Map<TopicPartition, OffsetAndMetadata> getOffsets() {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        this.positions.forEach((partition, offset) -> offsets.put(partition, new OffsetAndMetadata(offset)));
+        return offsets;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * {@code ConsumerLagSampler} samples the lag of a consumer group on the topics of a service, i.e. the number of
+ * records between the committed offsets of the group and the end offsets of the partitions. It uses a consumer of
+ * its own which never subscribes, hence it does not join the group nor affect its assignment.
+ */
+public class ConsumerLagSampler {
+
+    private final KafkaConsumer<byte[], byte[]> kafkaConsumer;
+    private final List<String> topics;
+
+    public ConsumerLagSampler(Properties configParams, List<String> topics) {
+        Properties samplerProperties = (Properties) configParams.clone();
+        Object clientId = samplerProperties.get(ConsumerConfig.CLIENT_ID_CONFIG);
+        if (clientId != null) {
+            // Client id is suffixed, so that sampler metrics are not mixed with the ones of the group members.
+            samplerProperties.put(ConsumerConfig.CLIENT_ID_CONFIG, clientId + "-lag-sampler");
+        }
+        samplerProperties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.kafkaConsumer = new KafkaConsumer<>(samplerProperties);
+        this.topics = topics;
+    }
+
+    /**
+     * Returns the total lag of the group over all the partitions of the topics. Partitions without a committed
+     * offset count from their beginning offset.
+     *
+     * @return number of records the group is behind.
+     */
+    public long sampleLag() {
+        List<TopicPartition> partitions = new ArrayList<>();
+        for (String topic : this.topics) {
+            List<PartitionInfo> partitionInfos = this.kafkaConsumer.partitionsFor(topic);
+            if (partitionInfos != null) {
+                partitionInfos.forEach(info -> partitions.add(new TopicPartition(info.topic(), info.partition())));
+            }
+        }
+        if (partitions.isEmpty()) {
+            return 0;
+        }
+        Map<TopicPartition, Long> endOffsets = this.kafkaConsumer.endOffsets(partitions);
+        Map<TopicPartition, Long> beginningOffsets = null;
+        long lag = 0;
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata committed = this.kafkaConsumer.committed(partition);
+            long position;
+            if (committed != null) {
+                position = committed.offset();
+            } else {
+                if (beginningOffsets == null) {
+                    beginningOffsets = this.kafkaConsumer.beginningOffsets(partitions);
+                }
+                position = beginningOffsets.getOrDefault(partition, 0L);
+            }
+            lag += Math.max(0, endOffsets.getOrDefault(partition, 0L) - position);
+        }
+        return lag;
+    }
+
+    /**
+     * Closes the consumer of the sampler.
+     */
+    public void close() {
+        this.kafkaConsumer.close();
+    }
+}
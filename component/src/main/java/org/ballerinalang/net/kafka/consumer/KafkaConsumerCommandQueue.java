@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * {@code KafkaConsumerCommandQueue} serializes access to a Kafka consumer which is owned by a polling thread.
+ * Kafka consumer is not thread safe, hence commands issued from other threads are queued and executed by the
+ * polling thread in between two polls.
+ */
+public class KafkaConsumerCommandQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaConsumerCommandQueue.class);
+
+    private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<>();
+    private final Runnable wakeupHandler;
+    private volatile Thread pollingThread;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a command queue for a Kafka consumer.
+     *
+     * @param wakeupHandler invoked once a command is queued, to signal the polling thread.
+     */
+    public KafkaConsumerCommandQueue(Runnable wakeupHandler) {
+        this.wakeupHandler = wakeupHandler;
+    }
+
+    /**
+     * Executes given command against the consumer and waits for its completion. Command is executed right away
+     * if the caller is the polling thread, otherwise it is queued to the polling thread.
+     *
+     * @param command to be executed against the consumer.
+     */
+    public void execute(Runnable command) {
+        if (isPollingThread()) {
+            runIgnoringStaleWakeup(command);
+            return;
+        }
+        ConsumerCommand task = new ConsumerCommand(() -> runIgnoringStaleWakeup(command));
+        submit(task);
+        try {
+            task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new KafkaException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptException(e);
+        }
+    }
+
+    /**
+     * Queues given command to the polling thread without waiting for its completion.
+     *
+     * @param command to be executed against the consumer.
+     */
+    public void submit(Runnable command) {
+        if (this.closed) {
+            throw new IllegalStateException("Kafka consumer polling has been stopped.");
+        }
+        this.commands.add(command);
+        if (this.closed && this.commands.remove(command)) {
+            // Queue was closed while the command was being added.
+            throw new IllegalStateException("Kafka consumer polling has been stopped.");
+        }
+        this.wakeupHandler.run();
+    }
+
+    /**
+     * Whether the caller is the thread which currently polls the consumer.
+     *
+     * @return true if caller is the polling thread.
+     */
+    public boolean isPollingThread() {
+        return Thread.currentThread() == this.pollingThread;
+    }
+
+    /**
+     * Marks the caller as the polling thread of the consumer.
+     */
+    void bindPollingThread() {
+        this.pollingThread = Thread.currentThread();
+    }
+
+    /**
+     * Executes all the queued commands. This should only be called by the polling thread.
+     */
+    void drain() {
+        Runnable command;
+        while ((command = this.commands.poll()) != null) {
+            try {
+                runIgnoringStaleWakeup(command);
+            } catch (RuntimeException e) {
+                logger.error("Failed to execute Kafka consumer command: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Whether commands are queued to be executed by the polling thread.
+     *
+     * @return true if at least one command is queued.
+     */
+    boolean hasCommands() {
+        return !this.commands.isEmpty();
+    }
+
+    /**
+     * Runs given consumer operation on the polling thread. A wake up issued for a poll which has returned in the
+     * meantime is delivered to the next blocking call of the consumer instead, in which case the operation is run
+     * once again, as the wake up has been consumed by then.
+     *
+     * @param command consumer operation to be run.
+     */
+    public static void runIgnoringStaleWakeup(Runnable command) {
+        try {
+            command.run();
+        } catch (WakeupException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Kafka consumer command was woken up, running it again.");
+            }
+            command.run();
+        }
+    }
+
+    /**
+     * Stops accepting commands and fails the commands which are still queued.
+     */
+    void close() {
+        this.closed = true;
+        Runnable command;
+        while ((command = this.commands.poll()) != null) {
+            if (command instanceof ConsumerCommand) {
+                ((ConsumerCommand) command).fail(
+                        new IllegalStateException("Kafka consumer polling has been stopped."));
+            }
+        }
+    }
+
+    /**
+     * Command which notifies the issuing thread with the outcome of its execution.
+     */
+    private static class ConsumerCommand extends FutureTask<Void> {
+
+        ConsumerCommand(Runnable command) {
+            super(command, null);
+        }
+
+        void fail(Throwable throwable) {
+            setException(throwable);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.config.ConfigException;
+import org.ballerinalang.connector.api.Annotation;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * {@code KafkaConsumerConfig} is the validated, immutable configuration of a Kafka consumer, compiled once from a
+ * service annotation or a consumer configuration struct. Configuration compiled from a struct is cached within the
+ * struct, hence consumers connected with the same struct share it. Configuration structs are expected not to change
+ * once a consumer is connected with them.
+ */
+public class KafkaConsumerConfig {
+
+    private static final Set<String> OFFSET_RESET_VALUES =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("latest", "earliest", "none")));
+    private static final Set<String> ISOLATION_LEVELS =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("read_committed", "read_uncommitted")));
+
+    private final Properties properties;
+    private final boolean autoCommit;
+    private final String groupId;
+
+    KafkaConsumerConfig(Properties properties) {
+        validate(properties);
+        this.properties = properties;
+        this.autoCommit = !Boolean.FALSE.equals(properties.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG));
+        this.groupId = (String) properties.get(ConsumerConfig.GROUP_ID_CONFIG);
+    }
+
+    /**
+     * Compiles the configuration of a Kafka service.
+     *
+     * @param kafkaConfig configuration annotation of the service.
+     * @return validated consumer configuration.
+     * @throws ConfigException if the configuration is invalid.
+     */
+    public static KafkaConsumerConfig of(Annotation kafkaConfig) {
+        return new KafkaConsumerConfig(KafkaUtils.processKafkaConsumerConfig(kafkaConfig));
+    }
+
+    /**
+     * Returns the configuration compiled from given consumer configuration struct, compiling it on first use.
+     *
+     * @param configStruct ConsumerConfig struct.
+     * @return validated consumer configuration.
+     * @throws ConfigException if the configuration is invalid.
+     */
+    public static KafkaConsumerConfig of(BStruct configStruct) {
+        KafkaConsumerConfig consumerConfig = (KafkaConsumerConfig) configStruct
+                .getNativeData(KafkaConstants.NATIVE_CONSUMER_CONFIG);
+        if (consumerConfig == null) {
+            // Concurrent first uses compile equal configurations, hence either of them can be kept.
+            consumerConfig = new KafkaConsumerConfig(KafkaUtils.processKafkaConsumerConfig(configStruct));
+            configStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_CONFIG, consumerConfig);
+        }
+        return consumerConfig;
+    }
+
+    /**
+     * Returns a copy of the consumer properties, which can be handed over to a Kafka consumer.
+     *
+     * @return consumer properties.
+     */
+    public Properties toProperties() {
+        return (Properties) this.properties.clone();
+    }
+
+    public boolean isAutoCommit() {
+        return autoCommit;
+    }
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    private static void validate(Properties properties) {
+        if (properties.get(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG) == null) {
+            throw new ConfigException("Missing required configuration \"" + ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG
+                    + "\" which has no default value.");
+        }
+        KafkaUtils.validateOneOf(properties, ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, OFFSET_RESET_VALUES);
+        KafkaUtils.validateOneOf(properties, ConsumerConfig.ISOLATION_LEVEL_CONFIG, ISOLATION_LEVELS);
+        Set<String> configNames = ConsumerConfig.configNames();
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            // Listener specific parameters are validated by the server connector.
+            if (configNames.contains(entry.getKey())) {
+                KafkaUtils.validateNonNegative((String) entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
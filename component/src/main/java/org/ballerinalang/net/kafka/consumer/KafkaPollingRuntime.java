@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code KafkaPollingRuntime} is a process wide, bounded pool of polling threads shared by the consumers of all
+ * the Kafka services in shared polling mode. Each poll is a short task which returns its thread to the pool, hence
+ * idle consumers do not hold a thread. Pool size is taken from the {@value #POLLING_THREADS_PROPERTY} system
+ * property and defaults to the number of available processors.
+ */
+public class KafkaPollingRuntime {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaPollingRuntime.class);
+
+    public static final String POLLING_THREADS_PROPERTY = "ballerina.kafka.pollingThreads";
+
+    private static volatile ScheduledExecutorService executorService;
+
+    private KafkaPollingRuntime() {
+    }
+
+    /**
+     * Schedules a poll task on the shared pool.
+     *
+     * @param pollTask poll of a consumer.
+     * @param delay    in milliseconds before the poll is executed.
+     * @return future of the scheduled poll.
+     */
+    public static ScheduledFuture<?> schedule(Runnable pollTask, long delay) {
+        return getExecutorService().schedule(pollTask, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private static ScheduledExecutorService getExecutorService() {
+        if (executorService == null) {
+            synchronized (KafkaPollingRuntime.class) {
+                if (executorService == null) {
+                    executorService = createExecutorService();
+                }
+            }
+        }
+        return executorService;
+    }
+
+    private static ScheduledExecutorService createExecutorService() {
+        int pollingThreads = Runtime.getRuntime().availableProcessors();
+        String configuredThreads = System.getProperty(POLLING_THREADS_PROPERTY);
+        if (configuredThreads != null) {
+            try {
+                pollingThreads = Math.max(1, Integer.parseInt(configuredThreads.trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '" + configuredThreads + "' for " + POLLING_THREADS_PROPERTY
+                        + ", using " + pollingThreads + " polling threads.");
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Kafka polling runtime started with " + pollingThreads + " polling threads.");
+        }
+        return Executors.newScheduledThreadPool(pollingThreads, runnable -> {
+            // Polling threads must not keep the process alive once all the services are stopped.
+            Thread thread = new Thread(runnable, "kafka-polling-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
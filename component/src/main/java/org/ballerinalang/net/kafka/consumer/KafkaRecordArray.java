@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.ballerinalang.model.types.BStructType;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.model.values.BValue;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * {@code KafkaRecordArray} is a ConsumerRecord struct array backed by native Kafka records. Record structs are
+ * created only when an element is accessed, hence records which are never read by the resource are not copied.
+ */
+public class KafkaRecordArray extends BRefValueArray {
+
+    private final List<ConsumerRecord<byte[], byte[]>> records;
+    private final BStructType recordStructType;
+    private final BitSet materialized;
+
+    public KafkaRecordArray(ConsumerRecords<byte[], byte[]> consumerRecords, BStructType recordStructType) {
+        this(toList(consumerRecords), recordStructType);
+    }
+
+    private KafkaRecordArray(List<ConsumerRecord<byte[], byte[]>> records, BStructType recordStructType) {
+        super(new BRefType[records.size()], recordStructType);
+        this.records = records;
+        this.recordStructType = recordStructType;
+        this.materialized = new BitSet(records.size());
+    }
+
+    private static List<ConsumerRecord<byte[], byte[]>> toList(ConsumerRecords<byte[], byte[]> consumerRecords) {
+        List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>(consumerRecords.count());
+        consumerRecords.forEach(records::add);
+        return records;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BRefType get(long index) {
+        materialize(index);
+        return super.get(index);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(long index, BRefType value) {
+        if (index >= 0 && index < this.records.size()) {
+            // Value assigned by the program replaces the native record.
+            this.materialized.set((int) index);
+        }
+        super.add(index, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public BValue copy() {
+        materializeAll();
+        return super.copy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String stringValue() {
+        materializeAll();
+        return super.stringValue();
+    }
+
+    private void materialize(long index) {
+        if (index < 0 || index >= this.records.size() || this.materialized.get((int) index)) {
+            return;
+        }
+        this.materialized.set((int) index);
+        super.add(index, createRecordStruct(this.recordStructType, this.records.get((int) index)));
+    }
+
+    private void materializeAll() {
+        for (int index = this.materialized.nextClearBit(0); index < this.records.size();
+             index = this.materialized.nextClearBit(index + 1)) {
+            materialize(index);
+        }
+    }
+
+    /**
+     * Creates a ConsumerRecord struct from a native Kafka record.
+     *
+     * @param recordStructType resolved ConsumerRecord struct type.
+     * @param record           native Kafka record.
+     * @return ConsumerRecord struct.
+     */
+    public static BStruct createRecordStruct(BStructType recordStructType, ConsumerRecord<byte[], byte[]> record) {
+        BStruct recordStruct = new BStruct(recordStructType);
+        recordStruct.setBlobField(0, record.key());
+        recordStruct.setBlobField(1, record.value());
+        recordStruct.setIntField(0, record.offset());
+        recordStruct.setIntField(1, record.partition());
+        recordStruct.setIntField(2, record.timestamp());
+        recordStruct.setStringField(0, record.topic());
+        return recordStruct;
+    }
+}
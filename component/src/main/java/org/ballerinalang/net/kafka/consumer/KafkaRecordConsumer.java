@@ -20,42 +20,124 @@
 package org.ballerinalang.net.kafka.consumer;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.AuthorizationException;
+import org.apache.kafka.common.errors.OutOfOrderSequenceException;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.apache.kafka.common.errors.WakeupException;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.net.kafka.api.KafkaListener;
+import org.ballerinalang.net.kafka.future.KafkaDispatchFutureListener;
 import org.ballerinalang.net.kafka.future.KafkaPollCycleFutureListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * {@code KafkaRecordConsumer} This class represents Runnable flow which periodically poll the remote broker and fetch
- * Kafka records.
+ * Kafka records. In continuous polling mode the consumer polls in a tight loop on its own thread instead. In shared
+ * polling mode each poll is a task on the process wide {@link KafkaPollingRuntime}, rescheduled right away while
+ * records keep coming and backed off up to the polling interval while idle.
  */
 public class KafkaRecordConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaRecordConsumer.class);
 
+    // Upper bound for the back off applied after empty polls in continuous polling mode.
+    private static final int MAX_IDLE_BACKOFF = 100;
+    // Interval in which consumer commands of a rebalance resource are executed while it is being processed.
+    private static final int REBALANCE_COMMAND_INTERVAL = 5;
+
     private KafkaConsumer<byte[], byte[]> kafkaConsumer;
     private int pollingTimeout = 1000;
     private int pollingInterval = 1000;
+    private String pollingMode = KafkaConstants.POLLING_MODE_SCHEDULED;
     private boolean decoupleProcessing = true;
+    private boolean partitionedDispatch = false;
+    private int keyOrderedConcurrency = 0;
+    private boolean autoCommit = true;
     private String groupId;
     private KafkaListener kafkaListener;
     private String serviceId;
     private int consumerId;
-    private ScheduledExecutorService executorService = Executors.newScheduledThreadPool(1);
-    private ScheduledFuture pollTaskFuture;
+    private ScheduledExecutorService executorService;
+    private Future pollTaskFuture;
+    private volatile boolean running = false;
+    // Shared polling mode state, guarded by this consumer.
+    private boolean pollInProgress = false;
+    private boolean pollRequested = false;
+    private int sharedIdleBackoff = 0;
+    private final CountDownLatch sharedPollingStopped = new CountDownLatch(1);
+    private KafkaConsumerCommandQueue commandQueue;
+    // Wake ups are only issued while the polling thread is within a poll, as a pending wake up otherwise fails the
+    // next blocking call of the consumer, e.g. a commit queued by a resource.
+    private volatile boolean inPoll = false;
+    // Zero means there is no limit on batches dispatched under decoupled processing.
+    private int maxInFlightBatches = 0;
+    private final AtomicInteger inFlightBatches = new AtomicInteger();
+    // Partitions paused due to in flight batch limit, accessed only by the polling thread.
+    private final Set<TopicPartition> backpressurePausedPartitions = new HashSet<>();
+    private volatile boolean backpressureApplied = false;
+    // Number of lanes being processed per partition and their record offsets, accessed by the polling thread.
+    private final Map<TopicPartition, Integer> outstandingLanes = new HashMap<>();
+    private final PartitionOffsetTracker offsetTracker = new PartitionOffsetTracker();
+    // Producer which each polled batch is processed in a transaction of, when a transactional id is configured.
+    private KafkaProducer<byte[], byte[]> transactionProducer;
+    // Set once the transactional producer is closed, after which records are no longer dispatched.
+    private boolean transactionProducerClosed = false;
+    // Positions as of the polled records, read by resources instead of querying the consumer.
+    private final ConsumedOffsetLedger offsetLedger = new ConsumedOffsetLedger();
+    // Coalesces asynchronous commits issued by resources, when enabled.
+    private AsyncOffsetCommitter offsetCommitter;
+    // Processed offsets are committed by the connector once either threshold is reached, when any is configured.
+    private boolean managedCommit = false;
+    private int commitInterval = 0;
+    private int commitRecordCount = 0;
+    private int uncommittedRecords = 0;
+    private long lastCommitTime = System.currentTimeMillis();
+    private final RebalanceMetrics rebalanceMetrics = new RebalanceMetrics();
+    // Incremented each time a partition moves to another consumer, lanes dispatched in an earlier epoch are stale.
+    private final Map<TopicPartition, Integer> partitionEpochs = new HashMap<>();
+    // Offsets which partitions are seeked back to once their outstanding lanes complete, as a lane of them failed.
+    private final Map<TopicPartition, Long> rewindOffsets = new HashMap<>();
+    // Partitions revoked by an ongoing rebalance, settled once the new assignment is known.
+    private Set<TopicPartition> pendingRevocation = Collections.emptySet();
+    // Fetch positions of the revoked partitions, restored on the partitions which are assigned back.
+    private Map<TopicPartition, Long> revokedPositions = Collections.emptyMap();
+    // Serializes consumer access of rebalance resources, which run while the polling thread is within a poll.
+    private KafkaConsumerCommandQueue rebalanceCommandQueue;
+    // Deadline in milliseconds in flight batches are waited for when the consumer is stopped.
+    private int drainTimeout = 0;
+    private volatile boolean draining = false;
+    private long drainDeadline;
+    private final Object drainMonitor = new Object();
 
     public KafkaRecordConsumer(KafkaListener kafkaListener,
                                Properties configParams,
@@ -66,8 +148,11 @@ public class KafkaRecordConsumer {
         // Initialize Kafka Consumer.
         this.kafkaConsumer = new KafkaConsumer<>(configParams);
         List<String> topics = (ArrayList<String>) configParams.get(KafkaConstants.ALIAS_TOPICS);
-        // Subscribe Kafka Consumer to given topics.
-        this.kafkaConsumer.subscribe(topics);
+        if (Boolean.TRUE.equals(configParams.get(KafkaConstants.ALIAS_COALESCE_ASYNC_COMMITS))) {
+            this.offsetCommitter = new AsyncOffsetCommitter(this.kafkaConsumer);
+        }
+        // Subscribe Kafka Consumer to given topics, pending commits are flushed when partitions are revoked.
+        this.kafkaConsumer.subscribe(topics, new ServiceRebalanceListener());
         this.kafkaListener = kafkaListener;
         if (configParams.get(KafkaConstants.ALIAS_POLLING_TIMEOUT) != null) {
             this.pollingTimeout = (Integer) configParams.get(KafkaConstants.ALIAS_POLLING_TIMEOUT);
@@ -75,39 +160,77 @@ public class KafkaRecordConsumer {
         if (configParams.get(KafkaConstants.ALIAS_POLLING_INTERVAL) != null) {
             this.pollingInterval = (Integer) configParams.get(KafkaConstants.ALIAS_POLLING_INTERVAL);
         }
+        if (configParams.get(KafkaConstants.ALIAS_POLLING_MODE) != null) {
+            this.pollingMode = (String) configParams.get(KafkaConstants.ALIAS_POLLING_MODE);
+        }
         if (configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG) != null) {
-            this.decoupleProcessing = (Boolean) configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG);
+            this.autoCommit = (Boolean) configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG);
+            this.decoupleProcessing = this.autoCommit;
         }
         // This is to override default decouple processing setting if required.
         if (configParams.get(KafkaConstants.ALIAS_DECOUPLE_PROCESSING) != null) {
             this.decoupleProcessing = (Boolean) configParams.get(KafkaConstants.ALIAS_DECOUPLE_PROCESSING);
         }
+        if (configParams.get(KafkaConstants.ALIAS_PARTITIONED_DISPATCH) != null) {
+            this.partitionedDispatch = (Boolean) configParams.get(KafkaConstants.ALIAS_PARTITIONED_DISPATCH);
+        }
+        if (configParams.get(KafkaConstants.ALIAS_KEY_ORDERED_CONCURRENCY) != null) {
+            this.keyOrderedConcurrency = (Integer) configParams.get(KafkaConstants.ALIAS_KEY_ORDERED_CONCURRENCY);
+        }
+        if (configParams.get(KafkaConstants.ALIAS_MAX_IN_FLIGHT_BATCHES) != null) {
+            this.maxInFlightBatches = (Integer) configParams.get(KafkaConstants.ALIAS_MAX_IN_FLIGHT_BATCHES);
+        }
+        if (configParams.get(KafkaConstants.ALIAS_COMMIT_INTERVAL) != null) {
+            this.commitInterval = (Integer) configParams.get(KafkaConstants.ALIAS_COMMIT_INTERVAL);
+        }
+        if (configParams.get(KafkaConstants.ALIAS_COMMIT_RECORD_COUNT) != null) {
+            this.commitRecordCount = (Integer) configParams.get(KafkaConstants.ALIAS_COMMIT_RECORD_COUNT);
+        }
+        if (configParams.get(KafkaConstants.ALIAS_DRAIN_TIMEOUT) != null) {
+            this.drainTimeout = (Integer) configParams.get(KafkaConstants.ALIAS_DRAIN_TIMEOUT);
+        }
+        this.managedCommit = !this.autoCommit && (this.commitInterval > 0 || this.commitRecordCount > 0);
         this.groupId = (String) configParams.get(ConsumerConfig.GROUP_ID_CONFIG);
+        this.executorService = createExecutorService(configParams);
+        if (configParams.get(KafkaConstants.ALIAS_TRANSACTIONAL_ID) != null) {
+            // Each consumer gets its own transactional id, as concurrent consumers run their own transactions.
+            String transactionalId = configParams.get(KafkaConstants.ALIAS_TRANSACTIONAL_ID) + "-" + consumerId;
+            this.transactionProducer = new KafkaProducer<>(
+                    KafkaUtils.processTransactionProducerConfig(configParams, transactionalId));
+            this.transactionProducer.initTransactions();
+        }
+        // In decoupled processing consumer is accessed by resources while polling thread keeps polling,
+        // hence resource side consumer access is queued to the polling thread.
+        if (this.decoupleProcessing) {
+            this.commandQueue = new KafkaConsumerCommandQueue(this::wakeupForCommands);
+        }
+        // Polling thread drains the queue itself while a rebalance resource is processed, hence no wake up.
+        this.rebalanceCommandQueue = this.commandQueue != null ? this.commandQueue
+                : new KafkaConsumerCommandQueue(() -> { });
+    }
+
+    private ScheduledExecutorService createExecutorService(Properties configParams) {
+        if (Boolean.TRUE.equals(configParams.get(KafkaConstants.ALIAS_VIRTUAL_THREADS))) {
+            // Blocking polls and resource waits park a virtual thread instead of pinning a platform thread.
+            ThreadFactory threadFactory = VirtualThreadSupport.newThreadFactory(
+                    "kafka-" + this.serviceId + "-" + this.consumerId + "-");
+            if (threadFactory != null) {
+                return Executors.newScheduledThreadPool(1, threadFactory);
+            }
+            logger.warn("Virtual threads are not supported by the JVM, Kafka Consumer " + this.consumerId
+                    + " on service " + this.serviceId + " polls on a platform thread.");
+        }
+        return Executors.newScheduledThreadPool(1);
     }
 
     private void poll() {
         try {
-            ConsumerRecords<byte[], byte[]> recordsRetrieved = this.kafkaConsumer.poll(this.pollingTimeout);
-            if (logger.isDebugEnabled()) {
-                logger.debug("Kafka Consumer " + this.consumerId + " on service " + this.serviceId
-                        + " has retrieved " + recordsRetrieved.count() + " records.");
-            }
-            if (!recordsRetrieved.isEmpty()) {
-                // When decoupleProcessing == 'true' Kafka records set will be dispatched and processed in
-                // Parallel threads.
-                // Otherwise dispatching and processing will have single threaded semantics.
-                if (this.decoupleProcessing) {
-                    this.kafkaListener.onRecordsReceived(recordsRetrieved, kafkaConsumer);
-                } else {
-                    Semaphore sem = new Semaphore(0);
-                    KafkaPollCycleFutureListener pollCycleListener =
-                            new KafkaPollCycleFutureListener(sem, serviceId);
-                    this.kafkaListener.onRecordsReceived(recordsRetrieved, kafkaConsumer, pollCycleListener, groupId);
-                    // We suspend execution of poll cycle here before moving to the next cycle.
-                    // Once we receive signal from BVM via KafkaPollCycleFutureListener this suspension is removed
-                    // We will move to the next polling cycle.
-                    sem.acquire();
-                }
+            pollAndDispatch();
+        } catch (WakeupException e) {
+            // Woken up by stopConsume(), rethrow only if consumer was not stopped.
+            if (this.running) {
+                this.kafkaListener.onError(e);
+                this.pollTaskFuture.cancel(false);
             }
         } catch (KafkaException |
                 IllegalStateException |
@@ -117,13 +240,523 @@ public class KafkaRecordConsumer {
             // When un-recoverable exception is thrown we stop scheduling task to the executor.
             // Later at stopConsume() on KafkaRecordConsumer we close the consumer.
             this.pollTaskFuture.cancel(false);
+            closeCommandQueue();
+        }
+    }
+
+    private void pollContinuously() {
+        int idleBackoff = 0;
+        try {
+            while (this.running) {
+                if (pollAndDispatch() > 0) {
+                    idleBackoff = 0;
+                } else {
+                    // Poll came back empty, back off exponentially up to the upper bound before next poll.
+                    idleBackoff = idleBackoff == 0 ? 1 : Math.min(idleBackoff * 2, getMaxIdleBackoff());
+                    Thread.sleep(idleBackoff);
+                }
+            }
+        } catch (WakeupException e) {
+            // Woken up by stopConsume(), rethrow only if consumer was not stopped.
+            if (this.running) {
+                this.kafkaListener.onError(e);
+            }
+        } catch (KafkaException |
+                IllegalStateException |
+                IllegalArgumentException |
+                InterruptedException e) {
+            if (this.running) {
+                this.kafkaListener.onError(e);
+            }
+        } finally {
+            closeCommandQueue();
+            // Kafka consumer is not thread safe, hence it is closed by the polling thread itself.
+            closeConsumer();
+        }
+    }
+
+    private void pollShared() {
+        synchronized (this) {
+            if (!this.running) {
+                return;
+            }
+            this.pollInProgress = true;
+            this.pollRequested = false;
+        }
+        boolean reschedule = true;
+        long delay = 0;
+        try {
+            if (pollAndDispatch() > 0) {
+                this.sharedIdleBackoff = 0;
+            } else {
+                // Idle consumer yields its thread, backing off exponentially up to the polling interval.
+                this.sharedIdleBackoff = this.sharedIdleBackoff == 0 ? 1
+                        : Math.min(this.sharedIdleBackoff * 2, Math.max(1, this.pollingInterval));
+                delay = this.sharedIdleBackoff;
+            }
+        } catch (WakeupException e) {
+            // Woken up by stopConsume(), rethrow only if consumer was not stopped.
+            if (this.running) {
+                this.kafkaListener.onError(e);
+            }
+        } catch (KafkaException |
+                IllegalStateException |
+                IllegalArgumentException |
+                InterruptedException e) {
+            this.kafkaListener.onError(e);
+            // When un-recoverable exception is thrown we stop scheduling polls.
+            // Later at stopConsume() on KafkaRecordConsumer we close the consumer.
+            reschedule = false;
+            closeCommandQueue();
+        }
+        synchronized (this) {
+            this.pollInProgress = false;
+            if (this.running) {
+                if (reschedule) {
+                    // Commands queued during the poll are executed by the next poll without backing off.
+                    this.pollTaskFuture = KafkaPollingRuntime.schedule(this::pollShared,
+                            this.pollRequested ? 0 : delay);
+                }
+                return;
+            }
+        }
+        // Stopped while polling, hence the consumer is closed by this thread as it is not thread safe.
+        closeConsumer();
+        this.sharedPollingStopped.countDown();
+    }
+
+    private synchronized void requestSharedPoll() {
+        if (!this.running) {
+            return;
+        }
+        if (this.pollInProgress) {
+            this.pollRequested = true;
+        } else if (this.pollTaskFuture != null && this.pollTaskFuture.cancel(false)) {
+            this.pollTaskFuture = KafkaPollingRuntime.schedule(this::pollShared, 0);
+        }
+    }
+
+    private int getPollTimeout() {
+        // Shared polling threads are not held while waiting for records.
+        return KafkaConstants.POLLING_MODE_SHARED.equals(this.pollingMode) ? 0 : this.pollingTimeout;
+    }
+
+    private int getMaxIdleBackoff() {
+        return Math.max(1, Math.min(this.pollingInterval, MAX_IDLE_BACKOFF));
+    }
+
+    private ConsumerRecords<byte[], byte[]> pollRecords() {
+        if (this.commandQueue == null) {
+            return pollConsumer();
+        }
+        this.commandQueue.bindPollingThread();
+        while (true) {
+            // Commands queued by resources are executed in between two polls.
+            this.commandQueue.drain();
+            updateBackpressure();
+            pauseForDrain();
+            try {
+                return pollConsumer();
+            } catch (WakeupException e) {
+                if (!this.running) {
+                    throw e;
+                }
+                // Woken up to execute queued commands, poll again once they are executed.
+            }
+        }
+    }
+
+    private ConsumerRecords<byte[], byte[]> pollConsumer() {
+        this.inPoll = true;
+        try {
+            if (this.commandQueue != null && this.commandQueue.hasCommands()) {
+                // Command queued before the poll was entered did not wake it up, hence the poll does not block.
+                return this.kafkaConsumer.poll(0);
+            }
+            return this.kafkaConsumer.poll(getPollTimeout());
+        } finally {
+            this.inPoll = false;
+        }
+    }
+
+    /**
+     * Breaks an ongoing poll. Wake up is skipped if the polling thread is not within a poll, as it would otherwise
+     * be delivered to the next blocking call of the consumer.
+     */
+    private void wakeupPoll() {
+        if (this.inPoll) {
+            this.kafkaConsumer.wakeup();
+        }
+    }
+
+    private void pauseForDrain() {
+        if (this.draining) {
+            // Partitions resumed by backpressure or assigned by a rebalance in the meantime are paused as well.
+            this.kafkaConsumer.pause(this.kafkaConsumer.assignment());
+        }
+    }
+
+    private void wakeupForCommands() {
+        if (KafkaConstants.POLLING_MODE_SHARED.equals(this.pollingMode)) {
+            // Polls do not block in shared polling mode, hence the next poll is brought forward instead.
+            requestSharedPoll();
+            return;
+        }
+        // Breaks an ongoing poll, so that queued commands are executed without waiting for poll timeout.
+        wakeupPoll();
+        if (KafkaConstants.POLLING_MODE_SCHEDULED.equals(this.pollingMode) && !this.executorService.isShutdown()) {
+            // Polling thread may be idle in between two scheduled polls.
+            this.executorService.execute(this::drainCommands);
+        }
+    }
+
+    private void drainCommands() {
+        this.commandQueue.bindPollingThread();
+        this.commandQueue.drain();
+    }
+
+    private int pollAndDispatch() throws InterruptedException {
+        if (this.managedCommit && this.commitInterval > 0
+                && System.currentTimeMillis() - this.lastCommitTime >= this.commitInterval) {
+            commitProcessedOffsets();
+        }
+        ConsumerRecords<byte[], byte[]> recordsRetrieved = pollRecords();
+        if (this.draining && !recordsRetrieved.isEmpty()) {
+            // Records fetched before partitions got paused are not dispatched, hence the consumer is rewound to them
+            // so that the position committed on close does not skip them.
+            for (TopicPartition partition : recordsRetrieved.partitions()) {
+                this.kafkaConsumer.seek(partition, recordsRetrieved.records(partition).get(0).offset());
+            }
+            return 0;
+        }
+        this.offsetLedger.retain(this.kafkaConsumer.assignment());
+        this.offsetLedger.record(recordsRetrieved);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Kafka Consumer " + this.consumerId + " on service " + this.serviceId
+                    + " has retrieved " + recordsRetrieved.count() + " records.");
+        }
+        if (!recordsRetrieved.isEmpty()) {
+            // When decoupleProcessing == 'true' Kafka records set will be dispatched and processed in
+            // Parallel threads.
+            // Otherwise dispatching and processing will have single threaded semantics.
+            if (this.decoupleProcessing && this.keyOrderedConcurrency > 1) {
+                dispatchKeyOrdered(recordsRetrieved);
+                updateBackpressure();
+            } else if (this.decoupleProcessing && this.partitionedDispatch) {
+                dispatchPartitions(recordsRetrieved);
+                updateBackpressure();
+            } else if (this.decoupleProcessing) {
+                this.inFlightBatches.incrementAndGet();
+                KafkaDispatchFutureListener dispatchListener =
+                        new KafkaDispatchFutureListener(succeeded -> onBatchCompleted(), serviceId);
+                this.kafkaListener.onRecordsReceived(recordsRetrieved, kafkaConsumer, dispatchListener);
+                updateBackpressure();
+            } else if (this.transactionProducer != null) {
+                dispatchInTransaction(recordsRetrieved);
+            } else {
+                Semaphore sem = new Semaphore(0);
+                KafkaPollCycleFutureListener pollCycleListener =
+                        new KafkaPollCycleFutureListener(sem, serviceId);
+                this.kafkaListener.onRecordsReceived(recordsRetrieved, kafkaConsumer, pollCycleListener, groupId);
+                // We suspend execution of poll cycle here before moving to the next cycle.
+                // Once we receive signal from BVM via KafkaPollCycleFutureListener this suspension is removed
+                // We will move to the next polling cycle.
+                sem.acquire();
+                if (this.managedCommit) {
+                    for (ConsumerRecord<byte[], byte[]> record : recordsRetrieved) {
+                        this.offsetTracker.track(record);
+                        this.offsetTracker.complete(new TopicPartition(record.topic(), record.partition()),
+                                record.offset());
+                    }
+                    onRecordsProcessed(recordsRetrieved.count());
+                }
+            }
+        }
+        return recordsRetrieved.count();
+    }
+
+    /**
+     * Dispatches records within a producer transaction, which also commits offsets of the records once the resource
+     * completes. Transaction is aborted if the resource fails or the transaction could not be committed, and the
+     * records are polled again. Producer which can no longer complete transactions, i.e. once it is fenced by
+     * another producer with the same transactional id, is closed and the consumer is stopped.
+     */
+    private void dispatchInTransaction(ConsumerRecords<byte[], byte[]> recordsRetrieved) throws InterruptedException {
+        if (this.transactionProducerClosed) {
+            throw new IllegalStateException("Transactional producer of service " + this.serviceId
+                    + " has been closed.");
+        }
+        try {
+            this.transactionProducer.beginTransaction();
+            Semaphore sem = new Semaphore(0);
+            KafkaPollCycleFutureListener pollCycleListener = new KafkaPollCycleFutureListener(sem, serviceId);
+            this.kafkaListener.onRecordsReceived(recordsRetrieved, kafkaConsumer, pollCycleListener, groupId);
+            sem.acquire();
+            if (pollCycleListener.isSucceeded()) {
+                // Offsets are taken from the records, hence consumer positions are not queried.
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                for (TopicPartition partition : recordsRetrieved.partitions()) {
+                    List<ConsumerRecord<byte[], byte[]>> records = recordsRetrieved.records(partition);
+                    offsets.put(partition, new OffsetAndMetadata(records.get(records.size() - 1).offset() + 1));
+                }
+                this.transactionProducer.sendOffsetsToTransaction(offsets, this.groupId);
+                this.transactionProducer.commitTransaction();
+                return;
+            }
+        } catch (ProducerFencedException | OutOfOrderSequenceException | AuthorizationException e) {
+            throw onTransactionProducerFailed(e);
+        } catch (KafkaException e) {
+            logger.warn("Transaction of Kafka Consumer " + this.consumerId + " on service " + this.serviceId
+                    + " failed, records are polled again: " + e.getMessage());
+        }
+        try {
+            this.transactionProducer.abortTransaction();
+        } catch (KafkaException e) {
+            throw onTransactionProducerFailed(e);
+        }
+        for (TopicPartition partition : recordsRetrieved.partitions()) {
+            this.kafkaConsumer.seek(partition, recordsRetrieved.records(partition).get(0).offset());
+        }
+    }
+
+    /**
+     * Closes the transactional producer which can no longer complete transactions, and creates the error which stops
+     * the consumer. Its open transaction is aborted by the broker.
+     */
+    private IllegalStateException onTransactionProducerFailed(KafkaException e) {
+        closeTransactionProducer();
+        // Producer in an error state reports the error which caused it as the cause of later failures.
+        Throwable cause = e.getCause() instanceof ProducerFencedException ? e.getCause() : e;
+        String message = cause instanceof ProducerFencedException
+                ? "Transactional producer of service " + this.serviceId + " has been fenced by another producer "
+                + "with the same transactional id, hence Kafka Consumer " + this.consumerId + " is stopped."
+                : "Transactional producer of service " + this.serviceId + " can no longer complete transactions, "
+                + "hence Kafka Consumer " + this.consumerId + " is stopped.";
+        return new IllegalStateException(message, cause);
+    }
+
+    private void dispatchPartitions(ConsumerRecords<byte[], byte[]> recordsRetrieved) {
+        List<Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>> lanes = new ArrayList<>();
+        for (TopicPartition partition : recordsRetrieved.partitions()) {
+            lanes.add(Collections.singletonMap(partition, recordsRetrieved.records(partition)));
+        }
+        dispatchLanes(recordsRetrieved.partitions(), lanes);
+    }
+
+    private void dispatchKeyOrdered(ConsumerRecords<byte[], byte[]> recordsRetrieved) {
+        List<Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>> lanes = new ArrayList<>();
+        for (int i = 0; i < this.keyOrderedConcurrency; i++) {
+            lanes.add(new LinkedHashMap<>());
+        }
+        for (ConsumerRecord<byte[], byte[]> record : recordsRetrieved) {
+            // Records without a key are kept in order of their partition.
+            int hash = record.key() == null ? record.partition() : Arrays.hashCode(record.key());
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            lanes.get((hash & Integer.MAX_VALUE) % this.keyOrderedConcurrency)
+                    .computeIfAbsent(partition, p -> new ArrayList<>()).add(record);
+        }
+        lanes.removeIf(Map::isEmpty);
+        dispatchLanes(recordsRetrieved.partitions(), lanes);
+    }
+
+    /**
+     * Dispatches each lane of records as a separate resource invocation. Partitions are kept paused till all
+     * the lanes containing their records are processed, so that records within a lane keep their order across
+     * polls while lanes are processed concurrently.
+     */
+    private void dispatchLanes(Set<TopicPartition> partitions,
+                               List<Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>>> lanes) {
+        this.kafkaConsumer.pause(partitions);
+        for (Map<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> lane : lanes) {
+            Map<TopicPartition, Integer> laneEpochs = new HashMap<>();
+            for (Map.Entry<TopicPartition, List<ConsumerRecord<byte[], byte[]>>> entry : lane.entrySet()) {
+                this.outstandingLanes.merge(entry.getKey(), 1, Integer::sum);
+                entry.getValue().forEach(this.offsetTracker::track);
+                laneEpochs.put(entry.getKey(), this.partitionEpochs.getOrDefault(entry.getKey(), 0));
+            }
+            this.inFlightBatches.incrementAndGet();
+            ConsumerRecords<byte[], byte[]> laneRecords = new ConsumerRecords<>(lane);
+            KafkaDispatchFutureListener dispatchListener = new KafkaDispatchFutureListener(
+                    succeeded -> onLaneCompleted(laneRecords, laneEpochs, succeeded), serviceId);
+            this.kafkaListener.onRecordsReceived(laneRecords, kafkaConsumer, dispatchListener);
+        }
+    }
+
+    private void onLaneCompleted(ConsumerRecords<byte[], byte[]> laneRecords, Map<TopicPartition, Integer> laneEpochs,
+                                 boolean succeeded) {
+        try {
+            this.commandQueue.submit(() -> releaseLane(laneRecords, laneEpochs, succeeded));
+        } catch (IllegalStateException e) {
+            // Polling has been stopped, hence nothing to resume.
+        }
+        // Released after the lane is queued, so that a drain waiting on it finds the lane ahead in the queue.
+        this.inFlightBatches.decrementAndGet();
+        signalDrain();
+    }
+
+    /**
+     * Marks records of a lane as processed, commits offsets which became committable unless offsets are auto
+     * committed and resumes partitions which have no outstanding lanes. Records of a failed lane are left pending,
+     * so that committed offsets do not advance past them, and their partitions are seeked back to fetch them again
+     * once no other lane of the partitions is outstanding. Partitions which moved to another consumer while the lane
+     * was processed are skipped, as their state has been reset. This should only be called by the polling thread.
+     */
+    private void releaseLane(ConsumerRecords<byte[], byte[]> laneRecords, Map<TopicPartition, Integer> laneEpochs,
+                             boolean succeeded) {
+        for (TopicPartition partition : laneRecords.partitions()) {
+            if (!isCurrentEpoch(partition, laneEpochs)) {
+                continue;
+            }
+            List<ConsumerRecord<byte[], byte[]>> records = laneRecords.records(partition);
+            if (succeeded) {
+                records.forEach(record -> this.offsetTracker.complete(partition, record.offset()));
+            } else {
+                // Records of a partition are in offset order within a lane.
+                this.rewindOffsets.merge(partition, records.get(0).offset(), Math::min);
+            }
+        }
+        Set<TopicPartition> assignment = this.kafkaConsumer.assignment();
+        for (TopicPartition partition : laneRecords.partitions()) {
+            if (!isCurrentEpoch(partition, laneEpochs)) {
+                continue;
+            }
+            if (this.outstandingLanes.merge(partition, -1, Integer::sum) > 0) {
+                continue;
+            }
+            this.outstandingLanes.remove(partition);
+            Long rewindOffset = this.rewindOffsets.remove(partition);
+            if (!assignment.contains(partition)) {
+                // Partition has been revoked while its records were processed.
+                this.offsetTracker.remove(Collections.singleton(partition));
+                continue;
+            }
+            if (rewindOffset != null) {
+                // Records from the first failed record onwards are dispatched again, including the ones which were
+                // processed by other lanes after it.
+                this.offsetTracker.rewind(partition, rewindOffset);
+                this.kafkaConsumer.seek(partition, rewindOffset);
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Partition " + partition + " of service " + this.serviceId
+                            + " is seeked back to offset " + rewindOffset + " as its records failed.");
+                }
+            }
+            if (this.backpressureApplied) {
+                // Partition is resumed along with the rest once in flight batches drop below the limit.
+                this.backpressurePausedPartitions.add(partition);
+            } else {
+                this.kafkaConsumer.resume(Collections.singleton(partition));
+            }
+        }
+        if (!this.autoCommit && succeeded) {
+            onRecordsProcessed(laneRecords.count());
+        }
+        updateBackpressure();
+    }
+
+    private boolean isCurrentEpoch(TopicPartition partition, Map<TopicPartition, Integer> laneEpochs) {
+        return this.partitionEpochs.getOrDefault(partition, 0).intValue() == laneEpochs.get(partition);
+    }
+
+    /**
+     * Commits processed offsets right away, unless commits are managed by thresholds in which case they are
+     * committed once enough records are processed. Interval based commits are issued before each poll.
+     */
+    private void onRecordsProcessed(int recordCount) {
+        if (!this.managedCommit) {
+            commitProcessedOffsets();
+            return;
+        }
+        this.uncommittedRecords += recordCount;
+        if (this.commitRecordCount > 0 && this.uncommittedRecords >= this.commitRecordCount) {
+            commitProcessedOffsets();
+        }
+    }
+
+    private void commitProcessedOffsets() {
+        this.uncommittedRecords = 0;
+        this.lastCommitTime = System.currentTimeMillis();
+        Map<TopicPartition, OffsetAndMetadata> offsets = this.offsetTracker.committableOffsets();
+        if (offsets.isEmpty()) {
+            return;
+        }
+        this.kafkaConsumer.commitAsync(offsets, (committedOffsets, exception) -> {
+            if (exception != null) {
+                logger.error("Failed to commit offsets " + committedOffsets + " on service " + this.serviceId
+                        + ": " + exception.getMessage(), exception);
+            }
+        });
+    }
+
+    private void onBatchCompleted() {
+        int remaining = this.inFlightBatches.decrementAndGet();
+        signalDrain();
+        if (this.backpressureApplied && remaining < this.maxInFlightBatches) {
+            try {
+                // Paused partitions are resumed by the polling thread, as consumer is not thread safe.
+                this.commandQueue.submit(this::updateBackpressure);
+            } catch (IllegalStateException e) {
+                // Polling has been stopped, hence nothing to resume.
+            }
+        }
+    }
+
+    private void signalDrain() {
+        if (this.draining) {
+            synchronized (this.drainMonitor) {
+                this.drainMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Pauses assigned partitions while the number of in flight batches is at the limit and resumes them once
+     * it drops below. Partitions which were paused by the resource are left untouched.
+     */
+    private void updateBackpressure() {
+        if (this.maxInFlightBatches <= 0) {
+            return;
+        }
+        if (this.inFlightBatches.get() >= this.maxInFlightBatches) {
+            Set<TopicPartition> partitionsToPause = new HashSet<>(this.kafkaConsumer.assignment());
+            partitionsToPause.removeAll(this.kafkaConsumer.paused());
+            if (!partitionsToPause.isEmpty()) {
+                this.kafkaConsumer.pause(partitionsToPause);
+                this.backpressurePausedPartitions.addAll(partitionsToPause);
+            }
+            this.backpressureApplied = true;
+            if (logger.isDebugEnabled()) {
+                logger.debug("Kafka Consumer " + this.consumerId + " on service " + this.serviceId
+                        + " has reached " + this.maxInFlightBatches + " in flight batches, paused "
+                        + partitionsToPause.size() + " partitions.");
+            }
+        } else if (this.backpressureApplied) {
+            // Partitions revoked in the meantime can not be resumed.
+            this.backpressurePausedPartitions.retainAll(this.kafkaConsumer.assignment());
+            this.kafkaConsumer.resume(this.backpressurePausedPartitions);
+            this.backpressurePausedPartitions.clear();
+            this.backpressureApplied = false;
         }
     }
 
     /**
      * Starts Kafka consumer polling cycles, schedules thread pool for given polling cycle.
+     * In continuous polling mode a single long running polling loop is submitted instead, while in shared polling
+     * mode polls are scheduled on the shared polling runtime.
      */
     public void consume() {
+        this.running = true;
+        this.kafkaListener.onConsumerStarted(this.kafkaConsumer, this.commandQueue, this.transactionProducer,
+                this.offsetLedger, this.offsetCommitter, this.rebalanceMetrics, this.groupId);
+        if (KafkaConstants.POLLING_MODE_SHARED.equals(this.pollingMode)) {
+            synchronized (this) {
+                this.pollTaskFuture = KafkaPollingRuntime.schedule(this::pollShared, 0);
+            }
+            return;
+        }
+        if (KafkaConstants.POLLING_MODE_CONTINUOUS.equals(this.pollingMode)) {
+            this.pollTaskFuture = this.executorService.submit(this::pollContinuously);
+            return;
+        }
         final Runnable pollingFunction = () -> {
             poll();
         };
@@ -140,12 +773,307 @@ public class KafkaRecordConsumer {
         return this.consumerId;
     }
 
+    /**
+     * Stops fetching records, so that batches in flight can complete before the consumer is stopped. Consumer keeps
+     * polling with all of its partitions paused, which keeps it in the group and executes commands of the resources.
+     * Has no effect unless a drain timeout is configured with decoupled processing.
+     */
+    public void startDrain() {
+        synchronized (this.drainMonitor) {
+            if (this.draining || this.drainTimeout <= 0 || this.commandQueue == null || !this.running) {
+                return;
+            }
+            this.drainDeadline = System.currentTimeMillis() + this.drainTimeout;
+            this.draining = true;
+        }
+    }
+
+    /**
+     * Waits till batches in flight are completed or the drain timeout elapses, and lets the polling thread settle
+     * the completed batches, so that their offsets are committed when the consumer is closed.
+     */
+    private void awaitDrain() {
+        if (!this.draining) {
+            return;
+        }
+        try {
+            synchronized (this.drainMonitor) {
+                long remaining = this.drainDeadline - System.currentTimeMillis();
+                while (this.inFlightBatches.get() > 0 && remaining > 0) {
+                    this.drainMonitor.wait(remaining);
+                    remaining = this.drainDeadline - System.currentTimeMillis();
+                }
+            }
+            // Commands are executed in order, hence lanes completed so far are released once this one is executed.
+            this.commandQueue.execute(() -> { });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (KafkaException | IllegalStateException e) {
+            // Polling has been stopped, hence nothing is left to settle.
+        }
+        int abandoned = this.inFlightBatches.get();
+        if (abandoned > 0) {
+            // Auto commit commits the positions of the consumer on close, which are past the abandoned records.
+            logger.warn("Kafka Consumer " + this.consumerId + " on service " + this.serviceId + " is stopped with "
+                    + abandoned + " batches in flight after " + this.drainTimeout + " milliseconds, "
+                    + (this.autoCommit ? "their records are not processed again as auto commit is enabled."
+                    : "their records are processed again once partitions are reassigned."));
+        } else if (logger.isDebugEnabled()) {
+            logger.debug("Kafka Consumer " + this.consumerId + " on service " + this.serviceId + " has drained.");
+        }
+    }
+
     /**
      * Stops Kafka consumer polling cycles, shutdowns scheduled thread pool and closes the consumer instance.
+     * If a drain timeout is configured, fetching is stopped first and batches in flight are waited for up to the
+     * timeout. Offsets of the processed records are committed before the consumer is closed.
      */
     public void stopConsume() {
-        this.kafkaConsumer.wakeup();
-        this.kafkaConsumer.close();
+        startDrain();
+        awaitDrain();
+        if (KafkaConstants.POLLING_MODE_SHARED.equals(this.pollingMode)) {
+            stopSharedPolling();
+            return;
+        }
+        this.running = false;
+        closeCommandQueue();
+        wakeupPoll();
+        if (KafkaConstants.POLLING_MODE_CONTINUOUS.equals(this.pollingMode)) {
+            // Polling loop closes the consumer once it is woken up, wait till it completes.
+            this.executorService.shutdown();
+            awaitPollingTermination();
+            return;
+        }
+        // Scheduled poll may still be using the consumer, which is not thread safe, hence it is closed once the
+        // poll completes.
         this.executorService.shutdown();
+        awaitPollingTermination();
+        closeConsumer();
+    }
+
+    private void stopSharedPolling() {
+        boolean pollInProgress;
+        synchronized (this) {
+            this.running = false;
+            pollInProgress = this.pollInProgress;
+            if (this.pollTaskFuture != null) {
+                this.pollTaskFuture.cancel(false);
+            }
+        }
+        closeCommandQueue();
+        if (!pollInProgress) {
+            closeConsumer();
+            return;
+        }
+        // Ongoing poll closes the consumer once it completes, wait till it completes.
+        wakeupPoll();
+        try {
+            if (!this.sharedPollingStopped.await(this.pollingTimeout + this.pollingInterval, TimeUnit.MILLISECONDS)) {
+                logger.warn("Kafka Consumer " + this.consumerId + " on service " + this.serviceId
+                        + " is still processing records, it will be closed once they are processed.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void closeConsumer() {
+        flushOffsetCommits();
+        this.kafkaConsumer.close();
+        closeTransactionProducer();
+        this.kafkaListener.onConsumerClosed(this.kafkaConsumer);
+    }
+
+    private void flushOffsetCommits() {
+        if (this.offsetCommitter != null) {
+            this.offsetCommitter.flush(null);
+        }
+        if (!this.autoCommit) {
+            // Offsets of the lanes released since the last commit, including those settled while draining.
+            commitProcessedOffsetsSync();
+        }
+    }
+
+    private void commitProcessedOffsetsSync() {
+        this.uncommittedRecords = 0;
+        this.lastCommitTime = System.currentTimeMillis();
+        Map<TopicPartition, OffsetAndMetadata> offsets = this.offsetTracker.committableOffsets();
+        if (offsets.isEmpty()) {
+            return;
+        }
+        try {
+            KafkaConsumerCommandQueue.runIgnoringStaleWakeup(() -> this.kafkaConsumer.commitSync(offsets));
+        } catch (KafkaException e) {
+            logger.error("Failed to commit offsets " + offsets + " on service " + this.serviceId
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Commits processed offsets synchronously before partitions are revoked, so that the consumer which the
+     * partitions are assigned to next does not process records again which are already processed.
+     * <p>
+     * Kafka consumer revokes all of its partitions on each rebalance. Partitions are settled incrementally once the
+     * new assignment is known instead: partitions assigned back keep their lanes, offsets and pauses, while only the
+     * partitions which moved to another consumer are reset, marking their in flight lanes stale. Rebalance resources
+     * of the service are dispatched with the partitions which actually moved in or out.
+     * <p>
+     * Kafka consumer also resets fetch positions of the partitions assigned back to their committed offsets, which
+     * are behind records still being processed. Positions are captured on revocation and restored on the partitions
+     * assigned back, so that records in flight are not fetched and dispatched again.
+     */
+    private class ServiceRebalanceListener implements ConsumerRebalanceListener {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            long startNanos = System.nanoTime();
+            if (offsetCommitter != null) {
+                offsetCommitter.flush(partitions);
+            }
+            if (!autoCommit) {
+                commitProcessedOffsetsSync();
+            }
+            pendingRevocation = new HashSet<>(partitions);
+            revokedPositions = new HashMap<>();
+            for (TopicPartition partition : partitions) {
+                try {
+                    KafkaConsumerCommandQueue.runIgnoringStaleWakeup(
+                            () -> revokedPositions.put(partition, kafkaConsumer.position(partition)));
+                } catch (KafkaException e) {
+                    // Partition without a valid position starts from its committed offset once assigned back.
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("Position of partition " + partition + " of service " + serviceId
+                                + " could not be captured: " + e.getMessage());
+                    }
+                }
+            }
+            rebalanceMetrics.recordRevoke(startNanos);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Partitions revoked from service " + serviceId + ": " + partitions
+                        + ", rebalance metrics: " + rebalanceMetrics);
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            long startNanos = System.nanoTime();
+            Set<TopicPartition> lostPartitions = new HashSet<>(pendingRevocation);
+            lostPartitions.removeAll(partitions);
+            Set<TopicPartition> addedPartitions = new HashSet<>(partitions);
+            addedPartitions.removeAll(pendingRevocation);
+            pendingRevocation = Collections.emptySet();
+            for (TopicPartition partition : partitions) {
+                Long position = revokedPositions.get(partition);
+                if (position != null) {
+                    kafkaConsumer.seek(partition, position);
+                }
+            }
+            revokedPositions = Collections.emptyMap();
+
+            // Lanes dispatched so far no longer commit offsets nor resume lost partitions once they complete.
+            lostPartitions.forEach(partition -> partitionEpochs.merge(partition, 1, Integer::sum));
+            offsetTracker.remove(lostPartitions);
+            rewindOffsets.keySet().removeAll(lostPartitions);
+            outstandingLanes.keySet().removeAll(lostPartitions);
+            backpressurePausedPartitions.removeAll(lostPartitions);
+            restorePauses(partitions);
+
+            if (!lostPartitions.isEmpty()) {
+                dispatchRebalance(KafkaConstants.RESOURCE_ON_PARTITIONS_REVOKED, lostPartitions);
+            }
+            if (!addedPartitions.isEmpty()) {
+                dispatchRebalance(KafkaConstants.RESOURCE_ON_PARTITIONS_ASSIGNED, addedPartitions);
+            }
+            rebalanceMetrics.recordAssign(startNanos);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Partitions assigned to service " + serviceId + ": " + partitions + ", moved in: "
+                        + addedPartitions + ", moved out: " + lostPartitions
+                        + ", rebalance metrics: " + rebalanceMetrics);
+            }
+        }
+
+        /**
+         * Pauses assigned partitions again which were paused before the rebalance, as the consumer resumes all the
+         * partitions it gets assigned.
+         */
+        private void restorePauses(Collection<TopicPartition> partitions) {
+            Set<TopicPartition> partitionsToPause = new HashSet<>(outstandingLanes.keySet());
+            partitionsToPause.addAll(backpressurePausedPartitions);
+            partitionsToPause.retainAll(partitions);
+            if (backpressureApplied) {
+                Set<TopicPartition> addedToBackpressure = new HashSet<>(partitions);
+                addedToBackpressure.removeAll(partitionsToPause);
+                backpressurePausedPartitions.addAll(addedToBackpressure);
+                partitionsToPause.addAll(addedToBackpressure);
+            }
+            if (!partitionsToPause.isEmpty()) {
+                kafkaConsumer.pause(partitionsToPause);
+            }
+        }
+
+        /**
+         * Dispatches the rebalance resource and waits for its completion, as the rebalance proceeds once the
+         * callback returns. Polling thread executes consumer commands issued by the resource meanwhile, since the
+         * consumer is held by the ongoing poll.
+         */
+        private void dispatchRebalance(String resourceName, Collection<TopicPartition> partitions) {
+            Semaphore sem = new Semaphore(0);
+            KafkaPollCycleFutureListener rebalanceListener = new KafkaPollCycleFutureListener(sem, serviceId);
+            rebalanceCommandQueue.bindPollingThread();
+            boolean dispatched = KafkaConstants.RESOURCE_ON_PARTITIONS_REVOKED.equals(resourceName)
+                    ? kafkaListener.onPartitionsRevoked(kafkaConsumer, rebalanceCommandQueue, partitions,
+                    rebalanceListener)
+                    : kafkaListener.onPartitionsAssigned(kafkaConsumer, rebalanceCommandQueue, partitions,
+                    rebalanceListener);
+            if (!dispatched) {
+                return;
+            }
+            try {
+                while (!sem.tryAcquire(REBALANCE_COMMAND_INTERVAL, TimeUnit.MILLISECONDS)) {
+                    rebalanceCommandQueue.drain();
+                }
+                rebalanceCommandQueue.drain();
+            } catch (InterruptedException e) {
+                // Polling is being stopped, the interrupt is left for the poll to act upon.
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void closeTransactionProducer() {
+        if (this.transactionProducer != null && !this.transactionProducerClosed) {
+            this.transactionProducerClosed = true;
+            // Transaction left open by an interrupted batch is aborted by the broker.
+            this.transactionProducer.close();
+        }
+    }
+
+    private void closeCommandQueue() {
+        if (this.commandQueue != null) {
+            this.commandQueue.close();
+        }
+    }
+
+    private void awaitPollingTermination() {
+        try {
+            if (!this.executorService.awaitTermination(this.pollingTimeout + this.pollingInterval,
+                    TimeUnit.MILLISECONDS)) {
+                // Polling thread is blocked on a resource invocation, interrupt it.
+                this.executorService.shutdownNow();
+                if (!this.executorService.awaitTermination(this.pollingTimeout, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Polling thread of Kafka Consumer " + this.consumerId + " on service "
+                            + this.serviceId + " did not stop after being interrupted.");
+                }
+            }
+        } catch (InterruptedException e) {
+            this.executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 }
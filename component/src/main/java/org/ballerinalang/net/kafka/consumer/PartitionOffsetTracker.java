@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * {@code PartitionOffsetTracker} keeps track of dispatched record offsets which are yet to be processed, per
+ * partition. When records of a partition are processed out of order, only the offset up to which all the records
+ * are processed is committable, i.e. the lowest pending offset or the next offset if nothing is pending.
+ */
+public class PartitionOffsetTracker {
+
+    private final Map<TopicPartition, PartitionOffsets> partitionOffsets = new HashMap<>();
+
+    /**
+     * Marks the record as dispatched and pending to be processed.
+     *
+     * @param record dispatched Kafka record.
+     */
+    public synchronized void track(ConsumerRecord record) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+        PartitionOffsets offsets = this.partitionOffsets.computeIfAbsent(partition, p -> new PartitionOffsets());
+        offsets.pending.add(record.offset());
+        offsets.highestTracked = Math.max(offsets.highestTracked, record.offset());
+    }
+
+    /**
+     * Marks the given offset of the partition as processed.
+     *
+     * @param partition of the record.
+     * @param offset    of the record.
+     */
+    public synchronized void complete(TopicPartition partition, long offset) {
+        PartitionOffsets offsets = this.partitionOffsets.get(partition);
+        if (offsets != null) {
+            offsets.pending.remove(offset);
+        }
+    }
+
+    /**
+     * Returns committable offsets of the partitions which have advanced since they were last returned.
+     *
+     * @return offsets to be committed per partition.
+     */
+    public synchronized Map<TopicPartition, OffsetAndMetadata> committableOffsets() {
+        Map<TopicPartition, OffsetAndMetadata> committable = new HashMap<>();
+        for (Map.Entry<TopicPartition, PartitionOffsets> entry : this.partitionOffsets.entrySet()) {
+            PartitionOffsets offsets = entry.getValue();
+            long committableOffset = offsets.pending.isEmpty() ? offsets.highestTracked + 1
+                    : offsets.pending.first();
+            if (committableOffset > offsets.lastCommittable) {
+                offsets.lastCommittable = committableOffset;
+                committable.put(entry.getKey(), new OffsetAndMetadata(committableOffset));
+            }
+        }
+        return committable;
+    }
+
+    /**
+     * Drops the offsets of the partition from the given offset onwards, i.e. once the partition is seeked back to
+     * fetch them again. Offsets up to the given offset become committable.
+     *
+     * @param partition seeked back.
+     * @param offset    from which records are fetched again.
+     */
+    public synchronized void rewind(TopicPartition partition, long offset) {
+        PartitionOffsets offsets = this.partitionOffsets.get(partition);
+        if (offsets == null) {
+            return;
+        }
+        offsets.pending.tailSet(offset).clear();
+        offsets.highestTracked = Math.min(offsets.highestTracked, offset - 1);
+    }
+
+    /**
+     * Stops tracking the given partitions, i.e. once they are revoked.
+     *
+     * @param partitions to be removed.
+     */
+    public synchronized void remove(Collection<TopicPartition> partitions) {
+        this.partitionOffsets.keySet().removeAll(partitions);
+    }
+
+    /**
+     * Offsets tracked for a single partition.
+     */
+    private static class PartitionOffsets {
+
+        private final TreeSet<Long> pending = new TreeSet<>();
+        private long highestTracked = -1;
+        private long lastCommittable = -1;
+    }
+}
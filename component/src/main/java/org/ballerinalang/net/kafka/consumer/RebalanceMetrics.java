@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code RebalanceMetrics} records how long a Kafka consumer stays paused in rebalance callbacks. Partitions
+ * revoked from the consumer are not assigned to any other consumer of the group until the revoke callback returns,
+ * hence long revoke pauses hold up the rebalance of the whole group.
+ */
+public class RebalanceMetrics {
+
+    private final AtomicLong revokeCount = new AtomicLong(0);
+    private final AtomicLong revokePauseNanos = new AtomicLong(0);
+    private final AtomicLong maxRevokePauseNanos = new AtomicLong(0);
+    private final AtomicLong assignCount = new AtomicLong(0);
+    private final AtomicLong assignPauseNanos = new AtomicLong(0);
+    private final AtomicLong maxAssignPauseNanos = new AtomicLong(0);
+
+    /**
+     * Records the pause of a revoke callback.
+     *
+     * @param startNanos {@link System#nanoTime()} at which the callback started.
+     */
+    public void recordRevoke(long startNanos) {
+        long pauseNanos = System.nanoTime() - startNanos;
+        this.revokeCount.incrementAndGet();
+        this.revokePauseNanos.addAndGet(pauseNanos);
+        this.maxRevokePauseNanos.accumulateAndGet(pauseNanos, Math::max);
+    }
+
+    /**
+     * Records the pause of an assign callback.
+     *
+     * @param startNanos {@link System#nanoTime()} at which the callback started.
+     */
+    public void recordAssign(long startNanos) {
+        long pauseNanos = System.nanoTime() - startNanos;
+        this.assignCount.incrementAndGet();
+        this.assignPauseNanos.addAndGet(pauseNanos);
+        this.maxAssignPauseNanos.accumulateAndGet(pauseNanos, Math::max);
+    }
+
+    public long getRevokeCount() {
+        return revokeCount.get();
+    }
+
+    public long getTotalRevokePauseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(revokePauseNanos.get());
+    }
+
+    public long getMaxRevokePauseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxRevokePauseNanos.get());
+    }
+
+    public long getAssignCount() {
+        return assignCount.get();
+    }
+
+    public long getTotalAssignPauseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(assignPauseNanos.get());
+    }
+
+    public long getMaxAssignPauseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxAssignPauseNanos.get());
+    }
+
+    @Override
+    public String toString() {
+        return "revoked " + getRevokeCount() + " times, paused " + getTotalRevokePauseMillis() + "ms (max "
+                + getMaxRevokePauseMillis() + "ms), assigned " + getAssignCount() + " times, paused "
+                + getTotalAssignPauseMillis() + "ms (max " + getMaxAssignPauseMillis() + "ms)";
+    }
+}
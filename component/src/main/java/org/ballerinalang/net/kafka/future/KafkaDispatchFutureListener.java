@@ -0,0 +1,91 @@
+/*
+ *  Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.future;
+
+import org.ballerinalang.connector.api.BallerinaConnectorException;
+import org.ballerinalang.connector.api.ConnectorFutureListener;
+import org.ballerinalang.model.values.BValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code KafkaDispatchFutureListener} tracks completion of a decoupled resource invocation. Unlike
+ * {@link KafkaPollCycleFutureListener} polling cycle is not suspended, completion is reported back to the consumer
+ * instead.
+ */
+public class KafkaDispatchFutureListener implements ConnectorFutureListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaDispatchFutureListener.class);
+
+    private CompletionHandler completionHandler;
+    private String serviceId;
+
+    /**
+     * Future will get notified from the Ballerina engine when the Resource invocation
+     * is over or when an error occurred.
+     */
+    public KafkaDispatchFutureListener(CompletionHandler completionHandler, String serviceId) {
+        this.completionHandler = completionHandler;
+        this.serviceId = serviceId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifySuccess() {
+        completionHandler.onCompleted(true);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Ballerina engine has completed decoupled resource invocation successfully for service "
+                    + serviceId + ".");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyReply(BValue... response) {
+        // Not required for Kafka.
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyFailure(BallerinaConnectorException ex) {
+        completionHandler.onCompleted(false);
+        logger.error("Ballerina engine has completed decoupled resource invocation with exception for service "
+                + serviceId + ".", ex);
+    }
+
+    /**
+     * Handler which gets notified once dispatched records are processed.
+     */
+    public interface CompletionHandler {
+
+        /**
+         * Invoked once the resource invocation is over.
+         *
+         * @param succeeded whether the resource invocation completed without an error.
+         */
+        void onCompleted(boolean succeeded);
+    }
+
+}
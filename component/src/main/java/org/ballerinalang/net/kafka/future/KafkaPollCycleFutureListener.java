@@ -39,6 +39,7 @@ public class KafkaPollCycleFutureListener implements ConnectorFutureListener {
     // This listener get notified and Semaphore is released, so that Kafka connector will move to Next polling cycle.
     private Semaphore sem;
     private String serviceId;
+    private volatile boolean succeeded = false;
 
     /**
      * Future will get notified from the Ballerina engine when the Resource invocation
@@ -54,6 +55,7 @@ public class KafkaPollCycleFutureListener implements ConnectorFutureListener {
      */
     @Override
     public void notifySuccess() {
+        succeeded = true;
         sem.release();
         if (logger.isDebugEnabled()) {
             logger.debug("Ballerina engine has completed resource invocation successfully for service " + serviceId +
@@ -61,6 +63,15 @@ public class KafkaPollCycleFutureListener implements ConnectorFutureListener {
         }
     }
 
+    /**
+     * Returns whether the resource invocation has completed successfully. Valid once the semaphore is released.
+     *
+     * @return true if the resource invocation is successful.
+     */
+    public boolean isSucceeded() {
+        return succeeded;
+    }
+
     /**
      * {@inheritDoc}
      */
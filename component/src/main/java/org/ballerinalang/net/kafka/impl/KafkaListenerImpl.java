@@ -19,15 +19,29 @@ package org.ballerinalang.net.kafka.impl;
 
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.TopicPartition;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.connector.api.Executor;
 import org.ballerinalang.connector.api.Resource;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaStructTypes;
 import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.net.kafka.api.KafkaListener;
+import org.ballerinalang.net.kafka.consumer.AsyncOffsetCommitter;
+import org.ballerinalang.net.kafka.consumer.ConsumedOffsetLedger;
+import org.ballerinalang.net.kafka.consumer.KafkaConsumerCommandQueue;
+import org.ballerinalang.net.kafka.consumer.RebalanceMetrics;
+import org.ballerinalang.net.kafka.future.KafkaDispatchFutureListener;
 import org.ballerinalang.net.kafka.future.KafkaPollCycleFutureListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  *  Kafka Connector listener for Ballerina.
  */
@@ -35,9 +49,48 @@ public class KafkaListenerImpl implements KafkaListener {
 
     private static final Logger logger = LoggerFactory.getLogger(KafkaListenerImpl.class);
     private Resource resource;
+    private Resource onPartitionsRevoked;
+    private Resource onPartitionsAssigned;
+    private KafkaStructTypes structTypes;
+    // Consumer struct is created once per Kafka consumer and passed on each dispatch.
+    private Map<KafkaConsumer, BStruct> consumerStructs = new ConcurrentHashMap<>();
+    // Consumer struct passed to rebalance resources, when consumer access is not queued on records dispatch.
+    private Map<KafkaConsumer, BStruct> rebalanceConsumerStructs = new ConcurrentHashMap<>();
 
     public KafkaListenerImpl(Resource resource) {
+        this(resource, null, null);
+    }
+
+    public KafkaListenerImpl(Resource resource, Resource onPartitionsRevoked, Resource onPartitionsAssigned) {
         this.resource = resource;
+        this.onPartitionsRevoked = onPartitionsRevoked;
+        this.onPartitionsAssigned = onPartitionsAssigned;
+        // Struct types are resolved once per service, rather than per dispatch.
+        this.structTypes = KafkaStructTypes.getStructTypes(resource);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onConsumerStarted(KafkaConsumer kafkaConsumer,
+                                  KafkaConsumerCommandQueue commandQueue,
+                                  KafkaProducer transactionProducer,
+                                  ConsumedOffsetLedger offsetLedger,
+                                  AsyncOffsetCommitter offsetCommitter,
+                                  RebalanceMetrics rebalanceMetrics,
+                                  String groupID) {
+        consumerStructs.put(kafkaConsumer, KafkaUtils.createConsumerStruct(structTypes, kafkaConsumer,
+                commandQueue, transactionProducer, offsetLedger, offsetCommitter, rebalanceMetrics, groupID));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onConsumerClosed(KafkaConsumer kafkaConsumer) {
+        consumerStructs.remove(kafkaConsumer);
+        rebalanceConsumerStructs.remove(kafkaConsumer);
     }
 
     /**
@@ -45,9 +98,11 @@ public class KafkaListenerImpl implements KafkaListener {
      */
     @Override
     public void onRecordsReceived(ConsumerRecords records,
-                                  KafkaConsumer kafkaConsumer) {
-        Executor.submit(resource, null, KafkaUtils.getSignatureParameters(resource, records,
-                kafkaConsumer));
+                                  KafkaConsumer kafkaConsumer,
+                                  KafkaDispatchFutureListener listener) {
+        ConnectorFuture future = Executor.submit(resource, null, KafkaUtils.getSignatureParameters(resource, records,
+                consumerStructs.get(kafkaConsumer), structTypes));
+        future.setConnectorFutureListener(listener);
     }
 
     /**
@@ -59,11 +114,64 @@ public class KafkaListenerImpl implements KafkaListener {
                                   KafkaPollCycleFutureListener listener,
                                   String groupID) {
         ConnectorFuture future = Executor.submit(resource, null,
-                KafkaUtils.getSignatureParameters(resource, records, kafkaConsumer, groupID));
+                KafkaUtils.getSignatureParameters(resource, records, consumerStructs.get(kafkaConsumer), groupID,
+                        structTypes));
         future.setConnectorFutureListener(listener);
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean onPartitionsRevoked(KafkaConsumer kafkaConsumer,
+                                       KafkaConsumerCommandQueue commandQueue,
+                                       Collection<TopicPartition> partitions,
+                                       KafkaPollCycleFutureListener listener) {
+        return dispatchRebalance(onPartitionsRevoked, kafkaConsumer, commandQueue, partitions, listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean onPartitionsAssigned(KafkaConsumer kafkaConsumer,
+                                        KafkaConsumerCommandQueue commandQueue,
+                                        Collection<TopicPartition> partitions,
+                                        KafkaPollCycleFutureListener listener) {
+        return dispatchRebalance(onPartitionsAssigned, kafkaConsumer, commandQueue, partitions, listener);
+    }
+
+    private boolean dispatchRebalance(Resource rebalanceResource,
+                                      KafkaConsumer kafkaConsumer,
+                                      KafkaConsumerCommandQueue commandQueue,
+                                      Collection<TopicPartition> partitions,
+                                      KafkaPollCycleFutureListener listener) {
+        BStruct consumerStruct = consumerStructs.get(kafkaConsumer);
+        if (rebalanceResource == null || consumerStruct == null) {
+            return false;
+        }
+        if (consumerStruct.getNativeData(KafkaConstants.NATIVE_CONSUMER_COMMAND_QUEUE) != commandQueue) {
+            // Rebalance resource runs while the consumer is held by the polling thread, hence its consumer
+            // access is queued even though the records resource accesses the consumer directly.
+            consumerStruct = rebalanceConsumerStructs.computeIfAbsent(kafkaConsumer,
+                    consumer -> createRebalanceConsumerStruct(consumerStructs.get(consumer), commandQueue));
+        }
+        ConnectorFuture future = Executor.submit(rebalanceResource, null, consumerStruct,
+                KafkaUtils.createPartitionStructArray(structTypes, partitions));
+        future.setConnectorFutureListener(listener);
+        return true;
+    }
+
+    private BStruct createRebalanceConsumerStruct(BStruct consumerStruct, KafkaConsumerCommandQueue commandQueue) {
+        return KafkaUtils.createConsumerStruct(structTypes,
+                (KafkaConsumer) consumerStruct.getNativeData(KafkaConstants.NATIVE_CONSUMER), commandQueue,
+                (KafkaProducer) consumerStruct.getNativeData(KafkaConstants.NATIVE_CONSUMER_TRANSACTION_PRODUCER),
+                KafkaUtils.getOffsetLedger(consumerStruct), KafkaUtils.getAsyncOffsetCommitter(consumerStruct),
+                KafkaUtils.getRebalanceMetrics(consumerStruct),
+                ((BStruct) consumerStruct.getRefField(0)).getStringField(1));
+    }
+
     /**
      * {@inheritDoc}
      */
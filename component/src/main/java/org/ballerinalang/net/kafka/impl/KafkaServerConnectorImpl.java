@@ -19,18 +19,23 @@
 package org.ballerinalang.net.kafka.impl;
 
 
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.KafkaException;
 import org.ballerinalang.net.kafka.KafkaConstants;
 import org.ballerinalang.net.kafka.api.KafkaListener;
 import org.ballerinalang.net.kafka.api.KafkaServerConnector;
+import org.ballerinalang.net.kafka.consumer.ConsumerLagSampler;
 import org.ballerinalang.net.kafka.consumer.KafkaRecordConsumer;
 import org.ballerinalang.net.kafka.exception.KafkaConnectorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * {@code KafkaServerConnectorImpl} This is the implementation for the {@code KafkaServerConnector} API
@@ -45,6 +50,14 @@ public class KafkaServerConnectorImpl implements KafkaServerConnector {
     private Properties configParams;
     private int numOfConcurrentConsumers = 1;
     private List<KafkaRecordConsumer> messageConsumers;
+    // Number of consumers scales with the lag of the group between the bounds, when maximum consumers is set.
+    private int minConsumers = 1;
+    private int maxConsumers = 0;
+    private int scaleUpLag = 1000;
+    private int scaleDownLag = 100;
+    private int lagSampleInterval = 10000;
+    private ScheduledExecutorService autoscaler;
+    private ConsumerLagSampler lagSampler;
 
     public KafkaServerConnectorImpl(String serviceId, Properties configParams,
                                     KafkaListener kafkaListener) throws KafkaConnectorException {
@@ -57,24 +70,137 @@ public class KafkaServerConnectorImpl implements KafkaServerConnector {
             throw new KafkaConnectorException("Number of Concurrent consumers should be a positive " +
                     "integer value greater than zero.");
         }
+        processAutoscalingConfig(configParams);
+        Object maxInFlightBatches = configParams.get(KafkaConstants.ALIAS_MAX_IN_FLIGHT_BATCHES);
+        if (maxInFlightBatches != null && (Integer) maxInFlightBatches < 0) {
+            throw new KafkaConnectorException("Maximum in flight batches should be a positive integer value, "
+                    + "or zero for no limit.");
+        }
+        Object partitionedDispatch = configParams.get(KafkaConstants.ALIAS_PARTITIONED_DISPATCH);
+        if (partitionedDispatch != null && (Boolean) partitionedDispatch && !isDecoupleProcessing(configParams)) {
+            throw new KafkaConnectorException("Partitioned dispatch is only supported with decoupled processing.");
+        }
+        if (partitionedDispatch != null && (Boolean) partitionedDispatch
+                && !Boolean.FALSE.equals(configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG))) {
+            // Auto commit would commit positions of records which are still processed by other lanes.
+            throw new KafkaConnectorException("Partitioned dispatch requires auto commit to be disabled.");
+        }
+        Object keyOrderedConcurrency = configParams.get(KafkaConstants.ALIAS_KEY_ORDERED_CONCURRENCY);
+        if (keyOrderedConcurrency != null && (Integer) keyOrderedConcurrency < 0) {
+            throw new KafkaConnectorException("Key ordered concurrency should be a positive integer value.");
+        }
+        if (keyOrderedConcurrency != null && (Integer) keyOrderedConcurrency > 1
+                && !isDecoupleProcessing(configParams)) {
+            throw new KafkaConnectorException("Key ordered concurrency is only supported with decoupled processing.");
+        }
+        if (keyOrderedConcurrency != null && (Integer) keyOrderedConcurrency > 1
+                && !Boolean.FALSE.equals(configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG))) {
+            // Auto commit would commit positions of records which are still processed by other lanes.
+            throw new KafkaConnectorException("Key ordered concurrency requires auto commit to be disabled.");
+        }
+        if (configParams.get(KafkaConstants.ALIAS_TRANSACTIONAL_ID) != null
+                && (isDecoupleProcessing(configParams)
+                || !Boolean.FALSE.equals(configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG)))) {
+            throw new KafkaConnectorException("Transactional ID requires auto commit to be disabled and "
+                    + "processing not to be decoupled.");
+        }
+        if (Boolean.TRUE.equals(configParams.get(KafkaConstants.ALIAS_COALESCE_ASYNC_COMMITS))
+                && !Boolean.FALSE.equals(configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG))) {
+            throw new KafkaConnectorException("Coalescing asynchronous commits requires auto commit to be disabled.");
+        }
+        Object commitInterval = configParams.get(KafkaConstants.ALIAS_COMMIT_INTERVAL);
+        Object commitRecordCount = configParams.get(KafkaConstants.ALIAS_COMMIT_RECORD_COUNT);
+        if ((commitInterval != null && (Integer) commitInterval < 0)
+                || (commitRecordCount != null && (Integer) commitRecordCount < 0)) {
+            throw new KafkaConnectorException("Commit interval and commit record count should be positive integer "
+                    + "values, or zero to commit after each batch.");
+        }
+        if ((commitInterval != null || commitRecordCount != null)
+                && !Boolean.FALSE.equals(configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG))) {
+            throw new KafkaConnectorException("Commit interval and commit record count require auto commit to be "
+                    + "disabled.");
+        }
+        Object drainTimeout = configParams.get(KafkaConstants.ALIAS_DRAIN_TIMEOUT);
+        if (drainTimeout != null && (Integer) drainTimeout < 0) {
+            throw new KafkaConnectorException("Drain timeout should be a positive integer value, or zero not to wait "
+                    + "for in flight batches.");
+        }
+        Object pollingMode = configParams.get(KafkaConstants.ALIAS_POLLING_MODE);
+        if (pollingMode != null && !KafkaConstants.POLLING_MODE_SCHEDULED.equals(pollingMode)
+                && !KafkaConstants.POLLING_MODE_CONTINUOUS.equals(pollingMode)
+                && !KafkaConstants.POLLING_MODE_SHARED.equals(pollingMode)) {
+            throw new KafkaConnectorException("Polling mode should be either '"
+                    + KafkaConstants.POLLING_MODE_SCHEDULED + "', '" + KafkaConstants.POLLING_MODE_CONTINUOUS
+                    + "' or '" + KafkaConstants.POLLING_MODE_SHARED + "' but found '" + pollingMode + "'.");
+        }
+        if (Boolean.TRUE.equals(configParams.get(KafkaConstants.ALIAS_VIRTUAL_THREADS))
+                && KafkaConstants.POLLING_MODE_SHARED.equals(pollingMode)) {
+            throw new KafkaConnectorException("Virtual threads can not be used in shared polling mode, as shared "
+                    + "polling threads are not owned by the consumers.");
+        }
         this.configParams = configParams;
     }
 
+    private void processAutoscalingConfig(Properties configParams) throws KafkaConnectorException {
+        if (configParams.get(KafkaConstants.ALIAS_MAX_CONSUMERS) == null) {
+            return;
+        }
+        this.maxConsumers = (Integer) configParams.get(KafkaConstants.ALIAS_MAX_CONSUMERS);
+        if (configParams.get(KafkaConstants.ALIAS_MIN_CONSUMERS) != null) {
+            this.minConsumers = (Integer) configParams.get(KafkaConstants.ALIAS_MIN_CONSUMERS);
+        }
+        if (configParams.get(KafkaConstants.ALIAS_SCALE_UP_LAG) != null) {
+            this.scaleUpLag = (Integer) configParams.get(KafkaConstants.ALIAS_SCALE_UP_LAG);
+        }
+        if (configParams.get(KafkaConstants.ALIAS_SCALE_DOWN_LAG) != null) {
+            this.scaleDownLag = (Integer) configParams.get(KafkaConstants.ALIAS_SCALE_DOWN_LAG);
+        }
+        if (configParams.get(KafkaConstants.ALIAS_LAG_SAMPLE_INTERVAL) != null) {
+            this.lagSampleInterval = (Integer) configParams.get(KafkaConstants.ALIAS_LAG_SAMPLE_INTERVAL);
+        }
+        if (this.minConsumers <= 0 || this.maxConsumers < this.minConsumers) {
+            throw new KafkaConnectorException("Minimum consumers should be a positive integer value, not greater "
+                    + "than maximum consumers.");
+        }
+        if (this.scaleDownLag < 0 || this.scaleUpLag <= this.scaleDownLag) {
+            throw new KafkaConnectorException("Scale up lag should be greater than scale down lag, which should be "
+                    + "a positive integer value.");
+        }
+        if (this.lagSampleInterval <= 0) {
+            throw new KafkaConnectorException("Lag sample interval should be a positive integer value greater than "
+                    + "zero.");
+        }
+    }
+
+    private static boolean isDecoupleProcessing(Properties configParams) {
+        // Decoupled processing follows auto commit setting unless it is explicitly given.
+        Object decoupleProcessing = configParams.get(KafkaConstants.ALIAS_DECOUPLE_PROCESSING);
+        if (decoupleProcessing == null) {
+            decoupleProcessing = configParams.get(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG);
+        }
+        return decoupleProcessing == null || (Boolean) decoupleProcessing;
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
-    public void start() throws KafkaConnectorException {
+    public synchronized void start() throws KafkaConnectorException {
+        int initialConsumers = numOfConcurrentConsumers;
+        if (isAutoscaling()) {
+            initialConsumers = Math.max(minConsumers, Math.min(numOfConcurrentConsumers, maxConsumers));
+        }
         try {
-            this.messageConsumers = new ArrayList<>();
-            for (int counter = 0; counter < numOfConcurrentConsumers; counter++) {
-                KafkaRecordConsumer consumer = new KafkaRecordConsumer(this.kafkaListener, this.configParams,
-                        this.serviceId, counter);
-                this.messageConsumers.add(consumer);
-                consumer.consume();
-                if (logger.isDebugEnabled()) {
-                    logger.debug("Started Kafka consumer " + counter + " on service : " + serviceId + ".");
-                }
+            this.messageConsumers = new CopyOnWriteArrayList<>();
+            for (int counter = 0; counter < initialConsumers; counter++) {
+                startConsumer();
+            }
+            if (isAutoscaling()) {
+                this.lagSampler = new ConsumerLagSampler(this.configParams,
+                        (List<String>) this.configParams.get(KafkaConstants.ALIAS_TOPICS));
+                this.autoscaler = Executors.newSingleThreadScheduledExecutor();
+                this.autoscaler.scheduleWithFixedDelay(this::autoscale, lagSampleInterval, lagSampleInterval,
+                        TimeUnit.MILLISECONDS);
             }
         } catch (KafkaException e) {
             throw new KafkaConnectorException("Error creating Kafka consumer to remote " +
@@ -82,20 +208,107 @@ public class KafkaServerConnectorImpl implements KafkaServerConnector {
         }
     }
 
+    private boolean isAutoscaling() {
+        return this.maxConsumers > 0;
+    }
+
+    private void startConsumer() {
+        // Consumer ids of stopped consumers are reused, which keeps their transactional ids bounded.
+        int consumerId = this.messageConsumers.size();
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(this.kafkaListener, this.configParams,
+                this.serviceId, consumerId);
+        this.messageConsumers.add(consumer);
+        consumer.consume();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Started Kafka consumer " + consumerId + " on service : " + serviceId + ".");
+        }
+    }
+
+    /**
+     * Adds a consumer while the lag of the group is above the scale up lag and removes one while it is below
+     * the scale down lag, one consumer per sample. Lag in between leaves the consumers as they are, so that
+     * the group does not rebalance back and forth around a single threshold. Any failure is logged rather than
+     * thrown, as an exception would cancel the subsequent samples.
+     */
+    private void autoscale() {
+        long lag;
+        try {
+            lag = this.lagSampler.sampleLag();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to sample consumer lag of service " + serviceId + ": " + e.getMessage(), e);
+            return;
+        }
+        KafkaRecordConsumer removedConsumer = null;
+        int consumers;
+        synchronized (this) {
+            if (this.messageConsumers == null) {
+                return;
+            }
+            consumers = this.messageConsumers.size();
+            try {
+                if (lag > this.scaleUpLag && consumers < this.maxConsumers) {
+                    startConsumer();
+                    logger.info("Scaled Kafka consumers of service " + serviceId + " up to " + (consumers + 1)
+                            + " as consumer lag is " + lag + ".");
+                } else if (lag < this.scaleDownLag && consumers > this.minConsumers) {
+                    removedConsumer = this.messageConsumers.remove(consumers - 1);
+                } else if (logger.isDebugEnabled()) {
+                    logger.debug("Consumer lag of service " + serviceId + " is " + lag + " with " + consumers
+                            + " consumers.");
+                }
+            } catch (RuntimeException e) {
+                logger.error("Failed to scale Kafka consumers of service " + serviceId + ": " + e.getMessage(), e);
+            }
+        }
+        if (removedConsumer == null) {
+            return;
+        }
+        // Stopping waits for the in flight batches to drain, which must not hold up the connector lock.
+        try {
+            removedConsumer.stopConsume();
+            logger.info("Scaled Kafka consumers of service " + serviceId + " down to " + (consumers - 1)
+                    + " as consumer lag is " + lag + ".");
+        } catch (RuntimeException e) {
+            logger.error("Failed to scale Kafka consumers of service " + serviceId + ": " + e.getMessage(), e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public boolean stop() throws KafkaConnectorException {
+        List<KafkaRecordConsumer> consumers;
+        ScheduledExecutorService scaler;
+        ConsumerLagSampler sampler;
+        synchronized (this) {
+            if (this.messageConsumers == null) {
+                // Connector has not been started, or has been stopped already.
+                return true;
+            }
+            consumers = this.messageConsumers;
+            scaler = this.autoscaler;
+            sampler = this.lagSampler;
+            this.messageConsumers = null;
+            this.autoscaler = null;
+        }
+        if (scaler != null) {
+            // Sampler is closed by the autoscaler thread once an ongoing sample completes, as it is not thread safe.
+            scaler.execute(sampler::close);
+            scaler.shutdown();
+        }
+        // All the consumers stop fetching first, so that their in flight batches drain concurrently.
+        consumers.forEach(KafkaRecordConsumer::startDrain);
         KafkaConnectorException ex = null;
-        for (KafkaRecordConsumer consumer : this.messageConsumers) {
+        for (KafkaRecordConsumer consumer : consumers) {
             try {
                 consumer.stopConsume();
                 if (logger.isDebugEnabled()) {
                     logger.debug("Stopped Kafka consumer " + consumer.getConsumerId()
                             + " on service : " + serviceId + ".");
                 }
-            } catch (KafkaException e) {
+            } catch (RuntimeException e) {
+                // Rest of the consumers are still stopped.
                 if (ex == null) {
                     ex = new KafkaConnectorException("Error closing the Kafka consumers for service "
                             + serviceId, e);
@@ -105,7 +318,14 @@ public class KafkaServerConnectorImpl implements KafkaServerConnector {
 
             }
         }
-        this.messageConsumers = null;
+        if (scaler != null) {
+            // A consumer being scaled down is stopped by the autoscaler, which has to complete before returning.
+            try {
+                scaler.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
         if (ex != null) {
             throw ex;
         }
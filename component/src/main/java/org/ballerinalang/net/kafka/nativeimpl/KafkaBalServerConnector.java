@@ -18,6 +18,7 @@
 
 package org.ballerinalang.net.kafka.nativeimpl;
 
+import org.apache.kafka.common.KafkaException;
 import org.ballerinalang.annotation.JavaSPIService;
 import org.ballerinalang.connector.api.Annotation;
 import org.ballerinalang.connector.api.BallerinaConnectorException;
@@ -27,6 +28,7 @@ import org.ballerinalang.net.kafka.KafkaConstants;
 import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.net.kafka.api.KafkaListener;
 import org.ballerinalang.net.kafka.api.KafkaServerConnector;
+import org.ballerinalang.net.kafka.consumer.KafkaConsumerConfig;
 import org.ballerinalang.net.kafka.exception.KafkaConnectorException;
 import org.ballerinalang.net.kafka.impl.KafkaListenerImpl;
 import org.ballerinalang.net.kafka.impl.KafkaServerConnectorImpl;
@@ -79,11 +81,19 @@ public class KafkaBalServerConnector implements BallerinaServerConnector {
             throw new BallerinaException("Error Kafka 'configuration' annotation missing in " + service.getName());
         }
 
-        Properties configParams = KafkaUtils.processKafkaConsumerConfig(kafkaConfig);
         String serviceId = service.getName();
+        Properties configParams;
+        try {
+            configParams = KafkaConsumerConfig.of(kafkaConfig).toProperties();
+        } catch (KafkaException e) {
+            throw new BallerinaException("Invalid Kafka configuration of service " + serviceId + ": "
+                    + e.getMessage(), e);
+        }
 
         try {
-            KafkaListener kafkaListener = new KafkaListenerImpl(KafkaUtils.extractKafkaResource(service));
+            KafkaListener kafkaListener = new KafkaListenerImpl(KafkaUtils.extractKafkaResource(service),
+                    KafkaUtils.extractRebalanceResource(service, KafkaConstants.RESOURCE_ON_PARTITIONS_REVOKED),
+                    KafkaUtils.extractRebalanceResource(service, KafkaConstants.RESOURCE_ON_PARTITIONS_ASSIGNED));
             KafkaServerConnector serverConnector = new KafkaServerConnectorImpl(serviceId,
                     configParams, kafkaListener);
             serverConnector.start();
@@ -16,34 +16,27 @@
 
 package org.ballerinalang.net.kafka.nativeimpl.actions.producer;
 
-import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.TopicPartition;
-import org.ballerinalang.bre.BallerinaTransactionContext;
-import org.ballerinalang.bre.BallerinaTransactionManager;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.connector.api.AbstractNativeAction;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.model.types.TypeKind;
 import org.ballerinalang.model.values.BConnector;
-import org.ballerinalang.model.values.BMap;
-import org.ballerinalang.model.values.BString;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaAction;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
-import org.ballerinalang.net.kafka.transaction.KafkaTransactionContext;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.consumer.ConsumedOffsetLedger;
+import org.ballerinalang.net.kafka.producer.KafkaProducerHandle;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
-import java.util.HashMap;
 import java.util.Map;
-import java.util.Properties;
-import java.util.Set;
 
 /**
  * Native action ballerina.net.kafka:commitConsumer which commits the consumer offsets in transaction.
@@ -65,41 +58,21 @@ public class CommitConsumer extends AbstractNativeAction {
     public ConnectorFuture execute(Context context) {
         BConnector producerConnector = (BConnector) getRefArgument(context, 0);
 
-        BMap producerMap = (BMap) producerConnector.getRefField(2);
-        BStruct producerStruct = (BStruct) producerMap.get(new BString(KafkaConstants.NATIVE_PRODUCER));
-
-        KafkaProducer<byte[], byte[]> kafkaProducer = (KafkaProducer) producerStruct
-                .getNativeData(KafkaConstants.NATIVE_PRODUCER);
-        Properties producerProperties = (Properties) producerStruct
-                .getNativeData(KafkaConstants.NATIVE_PRODUCER_CONFIG);
+        KafkaProducerHandle producerHandle = KafkaUtils.getProducerHandle(producerConnector);
 
         BStruct consumerStruct = (BStruct) getRefArgument(context, 1);
-        KafkaConsumer<byte[], byte[]> kafkaConsumer = (KafkaConsumer) consumerStruct
-                .getNativeData(KafkaConstants.NATIVE_CONSUMER);
-
-        Map<TopicPartition, OffsetAndMetadata> partitionToMetadataMap = new HashMap<>();
-        Set<TopicPartition> topicPartitions = kafkaConsumer.assignment();
-
-        topicPartitions.forEach(tp -> {
-            long pos = kafkaConsumer.position(tp);
-            partitionToMetadataMap.put(new TopicPartition(tp.topic(), tp.partition()), new OffsetAndMetadata(pos));
-        });
+        ConsumedOffsetLedger offsetLedger = KafkaUtils.getOffsetLedger(consumerStruct);
+        if (offsetLedger == null) {
+            throw new BallerinaException("Kafka Consumer has not been initialized properly.");
+        }
+        // Positions are read from the records consumed, hence the consumer is not queried per partition.
+        Map<TopicPartition, OffsetAndMetadata> partitionToMetadataMap = offsetLedger.getOffsets();
 
         BStruct consumerConfig = (BStruct) consumerStruct.getRefField(0);
         String groupID = consumerConfig.getStringField(1);
 
         try {
-            if (producerProperties.get(ProducerConfig.TRANSACTIONAL_ID_CONFIG) != null
-                    && context.isInTransaction()) {
-                String connectorKey = producerConnector.getStringField(0);
-                BallerinaTransactionManager ballerinaTxManager = context.getBallerinaTransactionManager();
-                BallerinaTransactionContext regTxContext = ballerinaTxManager.getTransactionContext(connectorKey);
-                if (regTxContext == null) {
-                    KafkaTransactionContext txContext = new KafkaTransactionContext(kafkaProducer);
-                    ballerinaTxManager.registerTransactionContext(connectorKey, txContext);
-                    kafkaProducer.beginTransaction();
-                }
-            }
+            KafkaProducer<byte[], byte[]> kafkaProducer = producerHandle.getProducer(context);
             kafkaProducer.sendOffsetsToTransaction(partitionToMetadataMap, groupID);
         } catch (IllegalStateException | KafkaException e) {
             throw new BallerinaException("Failed to send offsets to transaction. " + e.getMessage(), e, context);
@@ -18,31 +18,26 @@ package org.ballerinalang.net.kafka.nativeimpl.actions.producer;
 
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.producer.KafkaProducer;
-import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.TopicPartition;
-import org.ballerinalang.bre.BallerinaTransactionContext;
-import org.ballerinalang.bre.BallerinaTransactionManager;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.connector.api.AbstractNativeAction;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.model.types.TypeKind;
 import org.ballerinalang.model.values.BConnector;
-import org.ballerinalang.model.values.BMap;
 import org.ballerinalang.model.values.BRefValueArray;
-import org.ballerinalang.model.values.BString;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaAction;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
-import org.ballerinalang.net.kafka.transaction.KafkaTransactionContext;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.producer.KafkaProducerHandle;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Properties;
 
 /**
  * Native action ballerina.net.kafka:commitConsumerOffsets which commits the consumer fir given offsets in transaction.
@@ -65,13 +60,7 @@ public class CommitConsumerOffsets extends AbstractNativeAction {
     public ConnectorFuture execute(Context context) {
         BConnector producerConnector = (BConnector) getRefArgument(context, 0);
 
-        BMap producerMap = (BMap) producerConnector.getRefField(2);
-        BStruct producerStruct = (BStruct) producerMap.get(new BString(KafkaConstants.NATIVE_PRODUCER));
-
-        KafkaProducer<byte[], byte[]> kafkaProducer = (KafkaProducer) producerStruct
-                .getNativeData(KafkaConstants.NATIVE_PRODUCER);
-        Properties producerProperties = (Properties) producerStruct
-                .getNativeData(KafkaConstants.NATIVE_PRODUCER_CONFIG);
+        KafkaProducerHandle producerHandle = KafkaUtils.getProducerHandle(producerConnector);
 
         BRefValueArray offsets = ((BRefValueArray) getRefArgument(context, 1));
         String groupID = getStringArgument(context, 0);
@@ -87,17 +76,7 @@ public class CommitConsumerOffsets extends AbstractNativeAction {
         }
 
         try {
-            if (producerProperties.get(ProducerConfig.TRANSACTIONAL_ID_CONFIG) != null
-                    && context.isInTransaction()) {
-                String connectorKey = producerConnector.getStringField(0);
-                BallerinaTransactionManager ballerinaTxManager = context.getBallerinaTransactionManager();
-                BallerinaTransactionContext regTxContext = ballerinaTxManager.getTransactionContext(connectorKey);
-                if (regTxContext == null) {
-                    KafkaTransactionContext txContext = new KafkaTransactionContext(kafkaProducer);
-                    ballerinaTxManager.registerTransactionContext(connectorKey, txContext);
-                    kafkaProducer.beginTransaction();
-                }
-            }
+            KafkaProducer<byte[], byte[]> kafkaProducer = producerHandle.getProducer(context);
             kafkaProducer.sendOffsetsToTransaction(partitionToMetadataMap, groupID);
         } catch (IllegalStateException | KafkaException e) {
             throw new BallerinaException("Failed to send offsets to transaction. " + e.getMessage(), e, context);
@@ -16,21 +16,19 @@
 
 package org.ballerinalang.net.kafka.nativeimpl.actions.producer;
 
-import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.common.KafkaException;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.connector.api.AbstractNativeAction;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.model.types.TypeKind;
 import org.ballerinalang.model.values.BConnector;
-import org.ballerinalang.model.values.BMap;
-import org.ballerinalang.model.values.BString;
-import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaAction;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.producer.KafkaProducerHandle;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 /**
@@ -50,14 +48,10 @@ public class Flush extends AbstractNativeAction {
     public ConnectorFuture execute(Context context) {
         BConnector producerConnector = (BConnector) getRefArgument(context, 0);
 
-        BMap producerMap = (BMap) producerConnector.getRefField(2);
-        BStruct producerStruct = (BStruct) producerMap.get(new BString(KafkaConstants.NATIVE_PRODUCER));
-
-        KafkaProducer<byte[], byte[]> kafkaProducer =
-                (KafkaProducer) producerStruct.getNativeData(KafkaConstants.NATIVE_PRODUCER);
+        KafkaProducerHandle producerHandle = KafkaUtils.getProducerHandle(producerConnector);
 
         try {
-            kafkaProducer.flush();
+            producerHandle.flush();
         } catch (KafkaException e) {
             throw new BallerinaException("Failed to flush the producer " + e.getMessage(), e, context);
         }
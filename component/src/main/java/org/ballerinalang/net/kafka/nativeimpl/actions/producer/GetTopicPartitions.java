@@ -24,10 +24,8 @@ import org.ballerinalang.connector.api.AbstractNativeAction;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.model.types.TypeKind;
 import org.ballerinalang.model.values.BConnector;
-import org.ballerinalang.model.values.BMap;
 import org.ballerinalang.model.values.BRefType;
 import org.ballerinalang.model.values.BRefValueArray;
-import org.ballerinalang.model.values.BString;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
 import org.ballerinalang.natives.annotations.Argument;
@@ -35,6 +33,7 @@ import org.ballerinalang.natives.annotations.BallerinaAction;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
 import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.producer.KafkaProducerHandle;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 import java.util.ArrayList;
@@ -60,12 +59,9 @@ public class GetTopicPartitions extends AbstractNativeAction {
         BConnector producerConnector = (BConnector) getRefArgument(context, 0);
         String topic = getStringArgument(context, 0);
 
-        BMap producerMap = (BMap) producerConnector.getRefField(2);
-        BStruct producerStruct = (BStruct) producerMap.get(new BString(KafkaConstants.NATIVE_PRODUCER));
-
+        KafkaProducerHandle producerHandle = KafkaUtils.getProducerHandle(producerConnector);
+        KafkaProducer<byte[], byte[]> kafkaProducer = producerHandle.getKafkaProducer();
         try {
-            KafkaProducer<byte[], byte[]> kafkaProducer =
-                    (KafkaProducer) producerStruct.getNativeData(KafkaConstants.NATIVE_PRODUCER);
             List<PartitionInfo> partitionInfos = kafkaProducer.partitionsFor(topic);
             List<BStruct> infoList = new ArrayList<>();
             if (!partitionInfos.isEmpty()) {
@@ -78,8 +74,8 @@ public class GetTopicPartitions extends AbstractNativeAction {
                 });
                 context.getControlStackNew().getCurrentFrame().returnValues[0] =
                         new BRefValueArray(infoList.toArray(new BRefType[0]),
-                                KafkaUtils.createKafkaPackageStruct(context,
-                                        KafkaConstants.TOPIC_PARTITION_STRUCT_NAME).getType());
+                                KafkaUtils.getKafkaPackageStructType(context,
+                                        KafkaConstants.TOPIC_PARTITION_STRUCT_NAME));
             }
         } catch (KafkaException e) {
             throw new BallerinaException("Failed to fetch partitions from the producer " + e.getMessage(), e, context);
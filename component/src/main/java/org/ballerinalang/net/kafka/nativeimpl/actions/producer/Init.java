@@ -18,7 +18,6 @@
 
 package org.ballerinalang.net.kafka.nativeimpl.actions.producer;
 
-import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.KafkaException;
 import org.ballerinalang.bre.Context;
@@ -26,15 +25,16 @@ import org.ballerinalang.connector.api.AbstractNativeAction;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.model.types.TypeKind;
 import org.ballerinalang.model.values.BConnector;
-import org.ballerinalang.model.values.BMap;
-import org.ballerinalang.model.values.BString;
 import org.ballerinalang.model.values.BStringArray;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaAction;
 import org.ballerinalang.net.kafka.KafkaConstants;
-import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.producer.KafkaProducerConfig;
+import org.ballerinalang.net.kafka.producer.KafkaProducerHandle;
+import org.ballerinalang.net.kafka.producer.KafkaProducerRegistry;
+import org.ballerinalang.net.kafka.producer.KafkaTransactionalProducerPool;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 import java.util.Properties;
@@ -64,22 +64,23 @@ public class Init extends AbstractNativeAction {
         }
 
         BStruct producerConf = (BStruct) producerConnector.getRefField(1);
-        Properties producerProperties = KafkaUtils.processKafkaProducerConfig(producerConf);
-        producerProperties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
 
         try {
-            KafkaProducer<byte[], byte[]> kafkaProducer = new KafkaProducer<>(producerProperties);
-            if (producerProperties.get(ProducerConfig.TRANSACTIONAL_ID_CONFIG) != null) {
-                kafkaProducer.initTransactions();
+            KafkaProducerConfig producerConfig = KafkaProducerConfig.of(producerConf);
+            Properties producerProperties = producerConfig.toProperties();
+            producerProperties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+            KafkaProducerHandle producerHandle;
+            if (producerConfig.getTransactionalId() != null) {
+                // Transactional producers are bound to transactional ids, hence they are pooled per connector.
+                producerHandle = new KafkaProducerHandle(new KafkaTransactionalProducerPool(producerProperties),
+                        producerProperties, producerConnector.getStringField(0));
+            } else {
+                producerHandle = new KafkaProducerHandle(KafkaProducerRegistry.acquire(producerProperties),
+                        producerProperties, producerConnector.getStringField(0), true);
             }
 
-            BMap producerMap = (BMap) producerConnector.getRefField(2);
-            BStruct producerStruct = KafkaUtils.createKafkaPackageStruct(context,
-                    KafkaConstants.PRODUCER_STRUCT_NAME);
-            producerStruct.addNativeData(KafkaConstants.NATIVE_PRODUCER, kafkaProducer);
-            producerStruct.addNativeData(KafkaConstants.NATIVE_PRODUCER_CONFIG, producerProperties);
-
-            producerMap.put(new BString(KafkaConstants.NATIVE_PRODUCER), producerStruct);
+            BStruct producerStruct = (BStruct) producerConnector.getRefField(2);
+            producerStruct.addNativeData(KafkaConstants.NATIVE_PRODUCER, producerHandle);
         } catch (IllegalStateException | KafkaException e) {
             throw new BallerinaException("Failed to initialize the producer " + e.getMessage(), e, context);
         }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ballerinalang.net.kafka.nativeimpl.actions.producer;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BLangVMErrors;
+import org.ballerinalang.bre.bvm.WorkerContext;
+import org.ballerinalang.model.types.BStructType;
+import org.ballerinalang.model.values.BFunctionPointer;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.util.codegen.ProgramFile;
+import org.ballerinalang.util.codegen.cpentries.FunctionRefCPEntry;
+import org.ballerinalang.util.program.BLangFunctions;
+
+/**
+ * Implementation for {@link Callback} interface from connector side, which invokes the Ballerina function given to
+ * an asynchronous send once the broker acknowledges the record or the send fails. Send completes after the action
+ * has returned, hence the function is invoked in a context of its own instead of the invoking context. Function is
+ * invoked by the producer I/O thread, hence it is expected to return quickly.
+ */
+class KafkaSendCallback implements Callback {
+
+    private final ProgramFile programFile;
+    private final FunctionRefCPEntry onComplete;
+    private final BStructType recordMetadataType;
+    private final BStructType errorType;
+
+    private KafkaSendCallback(Context context, FunctionRefCPEntry onComplete) {
+        this.programFile = context.getProgramFile();
+        this.onComplete = onComplete;
+        // Types are resolved on the invoking thread.
+        this.recordMetadataType = KafkaUtils.getKafkaPackageStructType(context,
+                KafkaConstants.RECORD_METADATA_STRUCT_NAME);
+        this.errorType = (BStructType) BLangVMErrors.createError(context, 0, null).getType();
+    }
+
+    /**
+     * Creates a callback for given function pointer argument.
+     *
+     * @param context    of the native invocation.
+     * @param onComplete function pointer argument, can be null.
+     * @return callback, or null if a function is not given.
+     */
+    static KafkaSendCallback create(Context context, BRefType onComplete) {
+        if (!(onComplete instanceof BFunctionPointer)) {
+            return null;
+        }
+        return new KafkaSendCallback(context, ((BFunctionPointer) onComplete).value());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onCompletion(RecordMetadata metadata, Exception exception) {
+        Context childContext = new WorkerContext(programFile, new Context(programFile));
+        BStruct recordMetadata = exception == null
+                ? KafkaUtils.createRecordMetadataStruct(recordMetadataType, metadata) : null;
+        BStruct error = exception == null ? null
+                : KafkaUtils.createErrorStruct(errorType, "Failed to send message. " + exception.getMessage());
+        BLangFunctions.invokeFunction(programFile, onComplete.getFunctionInfo(),
+                new BValue[]{recordMetadata, error}, childContext);
+    }
+
+}
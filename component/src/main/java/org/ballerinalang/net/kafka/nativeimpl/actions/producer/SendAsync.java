@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ballerinalang.net.kafka.nativeimpl.actions.producer;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.connector.api.AbstractNativeAction;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BConnector;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaAction;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.producer.KafkaProducerHandle;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+
+/**
+ * Native action ballerina.net.kafka:sendAsync hands a record over to the producer and returns without waiting for
+ * the broker, so that records are pipelined. Given function is invoked with the metadata of the record once the
+ * broker acknowledges it, or with the error if the send fails.
+ */
+@BallerinaAction(packageName = "ballerina.net.kafka",
+        actionName = "sendAsync",
+        connectorName = KafkaConstants.PRODUCER_CONNECTOR_NAME,
+        args = {
+                @Argument(name = "c",
+                        type = TypeKind.CONNECTOR),
+                @Argument(name = "record", type = TypeKind.STRUCT, structType = "ProducerRecord",
+                        structPackage = "ballerina.net.kafka"),
+                @Argument(name = "onComplete", type = TypeKind.ANY)
+        },
+        returnType = {@ReturnType(type = TypeKind.NONE)})
+public class SendAsync extends AbstractNativeAction {
+
+    @Override
+    public ConnectorFuture execute(Context context) {
+        BConnector producerConnector = (BConnector) getRefArgument(context, 0);
+
+        KafkaProducerHandle producerHandle = KafkaUtils.getProducerHandle(producerConnector);
+
+        BStruct producerRecord = ((BStruct) getRefArgument(context, 1));
+        ProducerRecord<byte[], byte[]> kafkaRecord = KafkaUtils.createProducerRecord(producerRecord);
+        KafkaSendCallback callback = KafkaSendCallback.create(context, getRefArgument(context, 2));
+
+        try {
+            KafkaProducer<byte[], byte[]> kafkaProducer = producerHandle.getProducer(context);
+            kafkaProducer.send(kafkaRecord, callback);
+        } catch (IllegalStateException | KafkaException e) {
+            throw new BallerinaException("Failed to send message. " + e.getMessage(), e, context);
+        }
+        ClientConnectorFuture future = new ClientConnectorFuture();
+        future.notifySuccess();
+        return future;
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ballerinalang.net.kafka.nativeimpl.actions.producer;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.KafkaException;
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BLangVMErrors;
+import org.ballerinalang.connector.api.AbstractNativeAction;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.ballerinalang.model.types.BStructType;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BConnector;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaAction;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.producer.KafkaProducerHandle;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Native action ballerina.net.kafka:sendBatch send an array of records in a single native call, completes once the
+ * broker acknowledges all the records with metadata or error per record.
+ */
+@BallerinaAction(packageName = "ballerina.net.kafka",
+        actionName = "sendBatch",
+        connectorName = KafkaConstants.PRODUCER_CONNECTOR_NAME,
+        args = {
+                @Argument(name = "c",
+                        type = TypeKind.CONNECTOR),
+                @Argument(name = "records", type = TypeKind.ARRAY, elementType = TypeKind.STRUCT,
+                        structType = "ProducerRecord", structPackage = "ballerina.net.kafka")
+        },
+        returnType = {@ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.STRUCT, structType = "RecordMetadata",
+                structPackage = "ballerina.net.kafka"),
+                @ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.STRUCT)})
+public class SendBatch extends AbstractNativeAction {
+
+    @Override
+    public ConnectorFuture execute(Context context) {
+        BConnector producerConnector = (BConnector) getRefArgument(context, 0);
+
+        KafkaProducerHandle producerHandle = KafkaUtils.getProducerHandle(producerConnector);
+
+        BRefValueArray producerRecords = (BRefValueArray) getRefArgument(context, 1);
+        int recordCount = (int) producerRecords.size();
+        // Struct types are resolved here, as callbacks are invoked by the producer I/O thread, which must not
+        // access the context of the caller.
+        BStructType recordMetadataType = KafkaUtils.getKafkaPackageStructType(context,
+                KafkaConstants.RECORD_METADATA_STRUCT_NAME);
+        BStructType errorType = (BStructType) BLangVMErrors.createError(context, 0, null).getType();
+        BRefType[] metadata = new BRefType[recordCount];
+        BRefType[] errors = new BRefType[recordCount];
+
+        ClientConnectorFuture future = new ClientConnectorFuture();
+        AtomicInteger remaining = new AtomicInteger(recordCount);
+        Runnable completion = () -> future.notifyReply(new BRefValueArray(metadata, recordMetadataType),
+                new BRefValueArray(errors, errorType));
+        if (recordCount == 0) {
+            completion.run();
+            return future;
+        }
+
+        try {
+            // Producer and its transaction are resolved once for the whole batch.
+            KafkaProducer<byte[], byte[]> kafkaProducer = producerHandle.getProducer(context);
+            for (int index = 0; index < recordCount; index++) {
+                final int recordIndex = index;
+                try {
+                    kafkaProducer.send(KafkaUtils.createProducerRecord((BStruct) producerRecords.get(index)),
+                            (recordMetadata, exception) -> {
+                                if (exception != null) {
+                                    errors[recordIndex] = KafkaUtils.createErrorStruct(errorType,
+                                            "Failed to send message. " + exception.getMessage());
+                                } else {
+                                    metadata[recordIndex] = KafkaUtils.createRecordMetadataStruct(
+                                            recordMetadataType, recordMetadata);
+                                }
+                                if (remaining.decrementAndGet() == 0) {
+                                    completion.run();
+                                }
+                            });
+                } catch (KafkaException e) {
+                    // Record is rejected before it is queued, rest of the records are still sent.
+                    errors[recordIndex] = KafkaUtils.createErrorStruct(errorType,
+                            "Failed to send message. " + e.getMessage());
+                    if (remaining.decrementAndGet() == 0) {
+                        completion.run();
+                    }
+                }
+            }
+        } catch (IllegalStateException | KafkaException e) {
+            throw new BallerinaException("Failed to send messages. " + e.getMessage(), e, context);
+        }
+        return future;
+    }
+
+}
@@ -68,6 +68,7 @@ public class Assign extends AbstractNativeFunction {
 
         try {
             kafkaConsumer.assign(partitionList);
+            KafkaUtils.getOffsetLedger(consumerStruct).retain(partitionList);
         } catch (IllegalArgumentException |
                 IllegalStateException | KafkaException e) {
             return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
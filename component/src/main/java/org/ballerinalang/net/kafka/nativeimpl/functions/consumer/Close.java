@@ -58,6 +58,7 @@ public class Close extends AbstractNativeFunction {
         }
         // Clears the reference to Kafka Native consumer.
         consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER, null);
+        consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_OFFSET_LEDGER, null);
 
         try {
             kafkaConsumer.close();
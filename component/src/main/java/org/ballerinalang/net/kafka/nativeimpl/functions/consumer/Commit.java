@@ -28,6 +28,7 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 /**
@@ -57,8 +58,8 @@ public class Commit extends AbstractNativeFunction {
         }
 
         try {
-            kafkaConsumer.commitSync();
-        } catch (KafkaException e) {
+            KafkaUtils.executeConsumerCommand(consumerStruct, () -> kafkaConsumer.commitSync());
+        } catch (IllegalStateException | KafkaException e) {
             throw new BallerinaException("Failed to commit offsets. " + e.getMessage(), e, context);
         }
         return VOID_RETURN;
@@ -31,6 +31,7 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 import java.util.HashMap;
@@ -79,8 +80,9 @@ public class CommitOffset extends AbstractNativeFunction {
         }
 
         try {
-            kafkaConsumer.commitSync(partitionToMetadataMap);
-        } catch (IllegalArgumentException | KafkaException e) {
+            KafkaUtils.executeConsumerCommand(consumerStruct,
+                    () -> kafkaConsumer.commitSync(partitionToMetadataMap));
+        } catch (IllegalStateException | IllegalArgumentException | KafkaException e) {
             throw new BallerinaException("Failed to commit offsets. " + e.getMessage(), e, context);
         }
         return VOID_RETURN;
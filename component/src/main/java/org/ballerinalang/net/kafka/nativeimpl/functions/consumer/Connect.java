@@ -31,7 +31,9 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
-import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.consumer.ConsumedOffsetLedger;
+import org.ballerinalang.net.kafka.consumer.KafkaConsumerConfig;
+import org.ballerinalang.net.kafka.consumer.RebalanceMetrics;
 
 import java.util.Properties;
 
@@ -69,11 +71,13 @@ public class Connect extends AbstractNativeFunction {
                             " Please close it before re-connecting the external broker again."));
         }
 
-        Properties consumerProperties = KafkaUtils.processKafkaConsumerConfig(consumerConfig);
-
         try {
+            // Configuration is compiled and validated on first connect, later connects reuse it.
+            Properties consumerProperties = KafkaConsumerConfig.of(consumerConfig).toProperties();
             KafkaConsumer<byte[], byte[]> kafkaConsumer = new KafkaConsumer<>(consumerProperties);
             consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER, kafkaConsumer);
+            consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_OFFSET_LEDGER, new ConsumedOffsetLedger());
+            consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_REBALANCE_METRICS, new RebalanceMetrics());
         } catch (KafkaException e) {
             return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
         }
@@ -68,7 +68,8 @@ public class GetAssignment extends AbstractNativeFunction {
         }
 
         try {
-            Set<TopicPartition> assignments = kafkaConsumer.assignment();
+            Set<TopicPartition> assignments = KafkaUtils.executeConsumerQuery(consumerStruct,
+                    kafkaConsumer::assignment);
             List<BStruct> assignmentList = new ArrayList<>();
             if (!assignments.isEmpty()) {
                 assignments.forEach(assignment -> {
@@ -80,9 +81,9 @@ public class GetAssignment extends AbstractNativeFunction {
                 });
             }
             return getBValues(new BRefValueArray(assignmentList.toArray(new BRefType[0]),
-                    KafkaUtils.createKafkaPackageStruct(context,
-                            KafkaConstants.TOPIC_PARTITION_STRUCT_NAME).getType()));
-        } catch (KafkaException e) {
+                    KafkaUtils.getKafkaPackageStructType(context,
+                            KafkaConstants.TOPIC_PARTITION_STRUCT_NAME)));
+        } catch (IllegalStateException | KafkaException e) {
             return getBValues(null, BLangVMErrors.createError(context, 0, e.getMessage()));
         }
     }
@@ -72,7 +72,8 @@ public class GetBeginningOffsets extends AbstractNativeFunction {
         ArrayList<TopicPartition> partitionList = KafkaUtils.getTopicPartitionList(partitions);
 
         try {
-            Map<TopicPartition, Long> offsetMap = kafkaConsumer.beginningOffsets(partitionList);
+            Map<TopicPartition, Long> offsetMap = KafkaUtils.executeConsumerQuery(consumerStruct,
+                    () -> kafkaConsumer.beginningOffsets(partitionList));
             List<BStruct> offsetList = new ArrayList<>();
             if (!offsetMap.entrySet().isEmpty()) {
                 offsetMap.entrySet().forEach(offset -> {
@@ -88,9 +89,9 @@ public class GetBeginningOffsets extends AbstractNativeFunction {
                 });
             }
             return getBValues(new BRefValueArray(offsetList.toArray(new BRefType[0]),
-                    KafkaUtils.createKafkaPackageStruct(context,
-                            KafkaConstants.OFFSET_STRUCT_NAME).getType()));
-        } catch (KafkaException e) {
+                    KafkaUtils.getKafkaPackageStructType(context,
+                            KafkaConstants.OFFSET_STRUCT_NAME)));
+        } catch (IllegalStateException | KafkaException e) {
             return getBValues(null, BLangVMErrors.createError(context, 0, e.getMessage()));
         }
     }
@@ -68,8 +68,8 @@ public class GetCommittedOffset extends AbstractNativeFunction {
         int partitionValue = new Long(partition.getIntField(0)).intValue();
 
         try {
-            OffsetAndMetadata offsetAndMetadata =
-                    kafkaConsumer.committed(new TopicPartition(topic, partitionValue));
+            OffsetAndMetadata offsetAndMetadata = KafkaUtils.executeConsumerQuery(consumerStruct,
+                    () -> kafkaConsumer.committed(new TopicPartition(topic, partitionValue)));
             BStruct offset = KafkaUtils.createKafkaPackageStruct(context,
                     KafkaConstants.OFFSET_STRUCT_NAME);
             offset.setRefField(0, (BStruct) partition.copy());
@@ -79,7 +79,7 @@ public class GetCommittedOffset extends AbstractNativeFunction {
                 offset.setIntField(0, offsetAndMetadata.offset());
             }
             return getBValues(offset);
-        } catch (KafkaException e) {
+        } catch (IllegalStateException | KafkaException e) {
             return getBValues(null, BLangVMErrors.createError(context, 0, e.getMessage()));
         }
     }
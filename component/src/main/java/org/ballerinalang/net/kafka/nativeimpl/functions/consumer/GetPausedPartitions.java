@@ -68,7 +68,7 @@ public class GetPausedPartitions extends AbstractNativeFunction {
         }
 
         try {
-            Set<TopicPartition> assignments = kafkaConsumer.paused();
+            Set<TopicPartition> assignments = KafkaUtils.executeConsumerQuery(consumerStruct, kafkaConsumer::paused);
             List<BStruct> assignmentList = new ArrayList<>();
             if (!assignments.isEmpty()) {
                 assignments.forEach(assignment -> {
@@ -80,9 +80,9 @@ public class GetPausedPartitions extends AbstractNativeFunction {
                 });
             }
             return getBValues(new BRefValueArray(assignmentList.toArray(new BRefType[0]),
-                    KafkaUtils.createKafkaPackageStruct(context,
-                            KafkaConstants.TOPIC_PARTITION_STRUCT_NAME).getType()));
-        } catch (KafkaException e) {
+                    KafkaUtils.getKafkaPackageStructType(context,
+                            KafkaConstants.TOPIC_PARTITION_STRUCT_NAME)));
+        } catch (IllegalStateException | KafkaException e) {
             return getBValues(null, BLangVMErrors.createError(context, 0, e.getMessage()));
         }
     }
@@ -31,6 +31,7 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 /**
@@ -65,10 +66,10 @@ public class GetPositionOffset extends AbstractNativeFunction {
         int partitionValue = new Long(partition.getIntField(0)).intValue();
 
         try {
-            long position =
-                    kafkaConsumer.position(new TopicPartition(topic, partitionValue));
+            long position = KafkaUtils.executeConsumerQuery(consumerStruct,
+                    () -> kafkaConsumer.position(new TopicPartition(topic, partitionValue)));
             return getBValues(new BInteger(position));
-        } catch (IllegalArgumentException | KafkaException e) {
+        } catch (IllegalStateException | IllegalArgumentException | KafkaException e) {
             return getBValues(null, BLangVMErrors.createError(context, 0, e.getMessage()));
         }
     }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ballerinalang.net.kafka.nativeimpl.functions.consumer;
+
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BLangVMErrors;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.AbstractNativeFunction;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.consumer.RebalanceMetrics;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+/**
+ * Native function ballerina.net.kafka:getRebalanceMetrics returns how long given consumer has been paused in
+ * rebalance callbacks.
+ */
+@BallerinaFunction(packageName = "ballerina.net.kafka",
+        functionName = "getRebalanceMetrics",
+        receiver = @Receiver(type = TypeKind.STRUCT, structType = "Consumer",
+                structPackage = "ballerina.net.kafka"),
+        args = {
+                @Argument(name = "c",
+                        type = TypeKind.STRUCT, structType = "Consumer",
+                        structPackage = "ballerina.net.kafka")
+        },
+        returnType = {@ReturnType(type = TypeKind.STRUCT, structType = "RebalanceMetrics",
+                structPackage = "ballerina.net.kafka"),
+                @ReturnType(type = TypeKind.STRUCT)},
+        isPublic = true)
+public class GetRebalanceMetrics extends AbstractNativeFunction {
+
+    @Override
+    public BValue[] execute(Context context) {
+        BStruct consumerStruct = (BStruct) getRefArgument(context, 0);
+
+        KafkaConsumer<byte[], byte[]> kafkaConsumer = (KafkaConsumer) consumerStruct
+                .getNativeData(KafkaConstants.NATIVE_CONSUMER);
+        if (kafkaConsumer == null) {
+            throw new BallerinaException("Kafka Consumer has not been initialized properly.");
+        }
+
+        RebalanceMetrics rebalanceMetrics = KafkaUtils.getRebalanceMetrics(consumerStruct);
+        if (rebalanceMetrics == null) {
+            return getBValues(null, BLangVMErrors.createError(context, 0,
+                    "Rebalance metrics are not recorded for the consumer."));
+        }
+        BStruct metricsStruct = KafkaUtils.createKafkaPackageStruct(context,
+                KafkaConstants.REBALANCE_METRICS_STRUCT_NAME);
+        metricsStruct.setIntField(0, rebalanceMetrics.getRevokeCount());
+        metricsStruct.setIntField(1, rebalanceMetrics.getTotalRevokePauseMillis());
+        metricsStruct.setIntField(2, rebalanceMetrics.getMaxRevokePauseMillis());
+        metricsStruct.setIntField(3, rebalanceMetrics.getAssignCount());
+        metricsStruct.setIntField(4, rebalanceMetrics.getTotalAssignPauseMillis());
+        metricsStruct.setIntField(5, rebalanceMetrics.getMaxAssignPauseMillis());
+        return getBValues(metricsStruct);
+    }
+
+}
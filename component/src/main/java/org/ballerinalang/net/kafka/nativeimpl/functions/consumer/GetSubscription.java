@@ -30,6 +30,7 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 import java.util.Set;
@@ -62,7 +63,7 @@ public class GetSubscription extends AbstractNativeFunction {
         }
 
         try {
-            Set<String> subscriptions = kafkaConsumer.subscription();
+            Set<String> subscriptions = KafkaUtils.executeConsumerQuery(consumerStruct, kafkaConsumer::subscription);
             BStringArray subscriptionArray = new BStringArray();
             if (!subscriptions.isEmpty()) {
                 int i = 0;
@@ -71,7 +72,7 @@ public class GetSubscription extends AbstractNativeFunction {
                 }
             }
             return getBValues(subscriptionArray);
-        } catch (KafkaException e) {
+        } catch (IllegalStateException | KafkaException e) {
             return getBValues(null, BLangVMErrors.createError(context, 0, e.getMessage()));
         }
     }
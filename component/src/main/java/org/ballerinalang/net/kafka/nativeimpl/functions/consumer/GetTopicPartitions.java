@@ -69,7 +69,8 @@ public class GetTopicPartitions extends AbstractNativeFunction {
         }
 
         try {
-            List<PartitionInfo> partitionInfos = kafkaConsumer.partitionsFor(topic);
+            List<PartitionInfo> partitionInfos = KafkaUtils.executeConsumerQuery(consumerStruct,
+                    () -> kafkaConsumer.partitionsFor(topic));
             List<BStruct> infoList = new ArrayList<>();
             if (!partitionInfos.isEmpty()) {
                 partitionInfos.forEach(partitionInfo -> {
@@ -81,9 +82,9 @@ public class GetTopicPartitions extends AbstractNativeFunction {
                 });
             }
             return getBValues(new BRefValueArray(infoList.toArray(new BRefType[0]),
-                    KafkaUtils.createKafkaPackageStruct(context,
-                            KafkaConstants.TOPIC_PARTITION_STRUCT_NAME).getType()));
-        } catch (KafkaException e) {
+                    KafkaUtils.getKafkaPackageStructType(context,
+                            KafkaConstants.TOPIC_PARTITION_STRUCT_NAME)));
+        } catch (IllegalStateException | KafkaException e) {
             return getBValues(null, BLangVMErrors.createError(context, 0, e.getMessage()));
         }
     }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ballerinalang.net.kafka.nativeimpl.functions.consumer;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BLangVMErrors;
+import org.ballerinalang.bre.bvm.WorkerContext;
+import org.ballerinalang.model.types.BStructType;
+import org.ballerinalang.model.values.BFunctionPointer;
+import org.ballerinalang.model.values.BRefType;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.net.kafka.KafkaStructTypes;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.util.codegen.ProgramFile;
+import org.ballerinalang.util.codegen.cpentries.FunctionRefCPEntry;
+import org.ballerinalang.util.program.BLangFunctions;
+
+import java.util.Map;
+
+/**
+ * Implementation for {@link OffsetCommitCallback} interface from connector side, which invokes the Ballerina
+ * function given to an asynchronous commit once the commit completes. Commit may complete after the native
+ * invocation has returned, hence the function is invoked in a context of its own instead of the invoking context.
+ */
+class KafkaOffsetCommitCallback implements OffsetCommitCallback {
+
+    private final ProgramFile programFile;
+    private final FunctionRefCPEntry onComplete;
+    private final BStruct consumerStruct;
+    private final KafkaStructTypes structTypes;
+    private final BStructType errorType;
+
+    private KafkaOffsetCommitCallback(Context context, FunctionRefCPEntry onComplete, BStruct consumerStruct) {
+        this.programFile = context.getProgramFile();
+        this.onComplete = onComplete;
+        this.consumerStruct = consumerStruct;
+        // Types are resolved on the invoking thread.
+        this.structTypes = KafkaStructTypes.getStructTypes(context);
+        this.errorType = (BStructType) BLangVMErrors.createError(context, 0, null).getType();
+    }
+
+    /**
+     * Creates a callback for given function pointer argument.
+     *
+     * @param context        of the native invocation.
+     * @param onComplete     function pointer argument, can be null.
+     * @param consumerStruct consumer struct which commits the offsets.
+     * @return callback, or null if a function is not given.
+     */
+    static KafkaOffsetCommitCallback create(Context context, BRefType onComplete, BStruct consumerStruct) {
+        if (!(onComplete instanceof BFunctionPointer)) {
+            return null;
+        }
+        return new KafkaOffsetCommitCallback(context, ((BFunctionPointer) onComplete).value(), consumerStruct);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void onComplete(Map<TopicPartition, OffsetAndMetadata> offsets, Exception exception) {
+        Context childContext = new WorkerContext(programFile, new Context(programFile));
+        BStruct error = exception == null ? null : KafkaUtils.createErrorStruct(errorType, exception.getMessage());
+        BLangFunctions.invokeFunction(programFile, onComplete.getFunctionInfo(), new BValue[]{consumerStruct,
+                KafkaUtils.createOffsetStructArray(structTypes, offsets), error}, childContext);
+    }
+
+}
@@ -67,7 +67,7 @@ public class Pause extends AbstractNativeFunction {
         ArrayList<TopicPartition> partitionList = KafkaUtils.getTopicPartitionList(partitions);
 
         try {
-            kafkaConsumer.pause(partitionList);
+            KafkaUtils.executeConsumerCommand(consumerStruct, () -> kafkaConsumer.pause(partitionList));
         } catch (IllegalStateException | KafkaException e) {
             return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
         }
@@ -22,8 +22,6 @@ import org.apache.kafka.common.KafkaException;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.bre.bvm.BLangVMErrors;
 import org.ballerinalang.model.types.TypeKind;
-import org.ballerinalang.model.values.BRefType;
-import org.ballerinalang.model.values.BRefValueArray;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.model.values.BValue;
 import org.ballerinalang.natives.AbstractNativeFunction;
@@ -33,11 +31,10 @@ import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
 import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.consumer.ConsumedOffsetLedger;
+import org.ballerinalang.net.kafka.consumer.KafkaRecordArray;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Native function ballerina.net.kafka:poll poll the broker to retrieve messages within given timeout.
  */
@@ -68,26 +65,16 @@ public class Poll extends AbstractNativeFunction {
         }
 
         long timeout = getIntArgument(context, 0);
-        List<BStruct> recordsList = new ArrayList<>();
 
         try {
             ConsumerRecords<byte[], byte[]> recordsRetrieved = kafkaConsumer.poll(timeout);
-            if (!recordsRetrieved.isEmpty()) {
-                recordsRetrieved.forEach(record -> {
-                    BStruct recordStruct = KafkaUtils.createKafkaPackageStruct(context,
-                            KafkaConstants.CONSUMER_RECORD_STRUCT_NAME);
-                    recordStruct.setBlobField(0, record.key());
-                    recordStruct.setBlobField(1, record.value());
-                    recordStruct.setIntField(0, record.offset());
-                    recordStruct.setIntField(1, record.partition());
-                    recordStruct.setIntField(2, record.timestamp());
-                    recordStruct.setStringField(0, record.topic());
-                    recordsList.add(recordStruct);
-                });
-            }
-            return getBValues(new BRefValueArray(recordsList.toArray(new BRefType[0]),
-                    KafkaUtils.createKafkaPackageStruct(context,
-                            KafkaConstants.CONSUMER_RECORD_STRUCT_NAME).getType()));
+            // Positions are tracked, so that they can be committed without querying the consumer.
+            ConsumedOffsetLedger offsetLedger = KafkaUtils.getOffsetLedger(consumerStruct);
+            offsetLedger.retain(kafkaConsumer.assignment());
+            offsetLedger.record(recordsRetrieved);
+            // Record structs are created lazily, when the program reads them.
+            return getBValues(new KafkaRecordArray(recordsRetrieved, KafkaUtils.getKafkaPackageStructType(context,
+                    KafkaConstants.CONSUMER_RECORD_STRUCT_NAME)));
         } catch (IllegalStateException |
                 IllegalArgumentException | KafkaException e) {
             return getBValues(null, BLangVMErrors.createError(context, 0, e.getMessage()));
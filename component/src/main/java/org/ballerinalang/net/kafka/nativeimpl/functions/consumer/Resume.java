@@ -67,7 +67,7 @@ public class Resume extends AbstractNativeFunction {
         ArrayList<TopicPartition> partitionList = KafkaUtils.getTopicPartitionList(partitions);
 
         try {
-            kafkaConsumer.resume(partitionList);
+            KafkaUtils.executeConsumerCommand(consumerStruct, () -> kafkaConsumer.resume(partitionList));
         } catch (IllegalStateException | KafkaException e) {
             return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
         }
@@ -30,6 +30,7 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 /**
@@ -66,7 +67,11 @@ public class Seek extends AbstractNativeFunction {
         int partitionValue = new Long(partition.getIntField(0)).intValue();
 
         try {
-            kafkaConsumer.seek(new TopicPartition(topic, partitionValue), offsetValue);
+            TopicPartition topicPartition = new TopicPartition(topic, partitionValue);
+            KafkaUtils.executeConsumerCommand(consumerStruct, () -> {
+                kafkaConsumer.seek(topicPartition, offsetValue);
+                KafkaUtils.getOffsetLedger(consumerStruct).seek(topicPartition, offsetValue);
+            });
         } catch (IllegalStateException |
                 IllegalArgumentException | KafkaException e) {
             return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
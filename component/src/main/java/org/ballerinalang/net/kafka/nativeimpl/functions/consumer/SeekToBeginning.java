@@ -67,7 +67,9 @@ public class SeekToBeginning extends AbstractNativeFunction {
         ArrayList<TopicPartition> partitionList = KafkaUtils.getTopicPartitionList(partitions);
 
         try {
-            kafkaConsumer.seekToBeginning(partitionList);
+            KafkaUtils.executeConsumerCommand(consumerStruct, () -> kafkaConsumer.seekToBeginning(partitionList));
+            // Positions are known once records are polled again.
+            KafkaUtils.getOffsetLedger(consumerStruct).remove(partitionList);
         } catch (IllegalStateException | IllegalArgumentException |
                 KafkaException e) {
             return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
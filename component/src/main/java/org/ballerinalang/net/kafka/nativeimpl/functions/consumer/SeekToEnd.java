@@ -68,7 +68,9 @@ public class SeekToEnd extends AbstractNativeFunction {
         ArrayList<TopicPartition> partitionList = KafkaUtils.getTopicPartitionList(partitions);
 
         try {
-            kafkaConsumer.seekToEnd(partitionList);
+            KafkaUtils.executeConsumerCommand(consumerStruct, () -> kafkaConsumer.seekToEnd(partitionList));
+            // Positions are known once records are polled again.
+            KafkaUtils.getOffsetLedger(consumerStruct).remove(partitionList);
         } catch (IllegalStateException |
                 IllegalArgumentException | KafkaException e) {
             return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
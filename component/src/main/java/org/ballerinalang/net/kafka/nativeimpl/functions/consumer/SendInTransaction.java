@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ballerinalang.net.kafka.nativeimpl.functions.consumer;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.KafkaException;
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.bre.bvm.BLangVMErrors;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.AbstractNativeFunction;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.Receiver;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+
+/**
+ * Native function ballerina.net.kafka:sendInTransaction which sends a record within the transaction of the
+ * record batch being processed by a transactional service.
+ */
+@BallerinaFunction(packageName = "ballerina.net.kafka",
+        functionName = "sendInTransaction",
+        receiver = @Receiver(type = TypeKind.STRUCT, structType = "Consumer",
+                structPackage = "ballerina.net.kafka"),
+        args = {
+                @Argument(name = "c",
+                        type = TypeKind.STRUCT, structType = "Consumer",
+                        structPackage = "ballerina.net.kafka"),
+                @Argument(name = "record", type = TypeKind.STRUCT, structType = "ProducerRecord",
+                        structPackage = "ballerina.net.kafka")
+        },
+        returnType = {@ReturnType(type = TypeKind.STRUCT)},
+        isPublic = true)
+public class SendInTransaction extends AbstractNativeFunction {
+
+    @Override
+    public BValue[] execute(Context context) {
+        BStruct consumerStruct = (BStruct) getRefArgument(context, 0);
+        KafkaProducer<byte[], byte[]> transactionProducer = (KafkaProducer) consumerStruct
+                .getNativeData(KafkaConstants.NATIVE_CONSUMER_TRANSACTION_PRODUCER);
+        if (transactionProducer == null) {
+            return getBValues(BLangVMErrors.createError(context, 0,
+                    "Consumer is not bound to a transaction, service should be configured with transactionalID."));
+        }
+
+        BStruct producerRecord = (BStruct) getRefArgument(context, 1);
+        try {
+            transactionProducer.send(KafkaUtils.createProducerRecord(producerRecord));
+        } catch (IllegalStateException | KafkaException e) {
+            return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
+        }
+        return VOID_RETURN;
+    }
+
+}
@@ -26,8 +26,6 @@ import org.ballerinalang.bre.bvm.BLangVMErrors;
 import org.ballerinalang.bre.bvm.WorkerContext;
 import org.ballerinalang.model.types.TypeKind;
 import org.ballerinalang.model.values.BFunctionPointer;
-import org.ballerinalang.model.values.BRefType;
-import org.ballerinalang.model.values.BRefValueArray;
 import org.ballerinalang.model.values.BStringArray;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.model.values.BValue;
@@ -37,15 +35,19 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaStructTypes;
 import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.consumer.AsyncOffsetCommitter;
+import org.ballerinalang.net.kafka.consumer.RebalanceMetrics;
 import org.ballerinalang.util.codegen.ProgramFile;
 import org.ballerinalang.util.codegen.cpentries.FunctionRefCPEntry;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.ballerinalang.util.program.BLangFunctions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 /**
  * Native function ballerina.net.kafka:subscribeWithPartitionRebalance subscribes to given topic array
@@ -67,6 +69,8 @@ import java.util.List;
         isPublic = true)
 public class SubscribeWithPartitionRebalance extends AbstractNativeFunction {
 
+    private static final Logger logger = LoggerFactory.getLogger(SubscribeWithPartitionRebalance.class);
+
     @Override
     public BValue[] execute(Context context) {
         BStruct consumerStruct = (BStruct) getRefArgument(context, 0);
@@ -94,16 +98,20 @@ public class SubscribeWithPartitionRebalance extends AbstractNativeFunction {
                     "The onPartitionsAssigned function is not provided."));
         }
 
-        ConsumerRebalanceListener listener = new KafkaRebalanceListener(context, onPartitionsRevoked,
-                onPartitionsAssigned, this, consumerStruct);
-
-
         KafkaConsumer<byte[], byte[]> kafkaConsumer = (KafkaConsumer) consumerStruct
                 .getNativeData(KafkaConstants.NATIVE_CONSUMER);
         if (kafkaConsumer == null) {
             throw new BallerinaException("Kafka Consumer has not been initialized properly.");
         }
 
+        RebalanceMetrics rebalanceMetrics = KafkaUtils.getRebalanceMetrics(consumerStruct);
+        if (rebalanceMetrics == null) {
+            rebalanceMetrics = new RebalanceMetrics();
+            consumerStruct.addNativeData(KafkaConstants.NATIVE_CONSUMER_REBALANCE_METRICS, rebalanceMetrics);
+        }
+        ConsumerRebalanceListener listener = new KafkaRebalanceListener(context, onPartitionsRevoked,
+                onPartitionsAssigned, consumerStruct, rebalanceMetrics);
+
         try {
             kafkaConsumer.subscribe(topics, listener);
         } catch (IllegalArgumentException |
@@ -116,27 +124,39 @@ public class SubscribeWithPartitionRebalance extends AbstractNativeFunction {
     /**
      * Implementation for {@link ConsumerRebalanceListener} interface from connector side.
      * We register this listener at subscription.
+     * <p>
+     * Callbacks are invoked on the polling thread, within the poll of the consumer. Both functions are invoked
+     * synchronously and block the poll until they return, as the consumer is not thread safe and seeks or commits
+     * made by them have to take effect before the rebalance proceeds. When the consumer coalesces asynchronous
+     * commits, commits still pending for revoked partitions are committed natively before the revoke function is
+     * invoked, so that they are not lost. Consumers which do not coalesce commits have nothing pending natively.
+     * Positions of records which are polled but not committed by the user are not committed, as the records may not
+     * have been processed. Each invocation gets a worker context of its own, as the context the subscription was
+     * made in keeps running user code meanwhile. Partition structs are created for each callback as functions may
+     * modify them.
      *
      * {@inheritDoc}
      */
-    class KafkaRebalanceListener implements ConsumerRebalanceListener {
+    static class KafkaRebalanceListener implements ConsumerRebalanceListener {
 
-        private Context context;
-        private FunctionRefCPEntry onPartitionsRevoked;
-        private FunctionRefCPEntry onPartitionsAssigned;
-        private AbstractNativeFunction function;
-        private BStruct consumerStruct;
+        private final ProgramFile programFile;
+        private final FunctionRefCPEntry onPartitionsRevoked;
+        private final FunctionRefCPEntry onPartitionsAssigned;
+        private final BStruct consumerStruct;
+        private final RebalanceMetrics rebalanceMetrics;
+        private final KafkaStructTypes structTypes;
 
         KafkaRebalanceListener(Context context,
                                FunctionRefCPEntry onPartitionsRevoked,
                                FunctionRefCPEntry onPartitionsAssigned,
-                               AbstractNativeFunction function,
-                               BStruct consumerStruct) {
-            this.context = context;
+                               BStruct consumerStruct,
+                               RebalanceMetrics rebalanceMetrics) {
+            this.programFile = context.getProgramFile();
             this.onPartitionsRevoked = onPartitionsRevoked;
             this.onPartitionsAssigned = onPartitionsAssigned;
-            this.function = function;
             this.consumerStruct = consumerStruct;
+            this.rebalanceMetrics = rebalanceMetrics;
+            this.structTypes = KafkaStructTypes.getStructTypes(context);
         }
 
         /**
@@ -144,11 +164,13 @@ public class SubscribeWithPartitionRebalance extends AbstractNativeFunction {
          */
         @Override
         public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
-            ProgramFile programFile = context.getProgramFile();
-            Context childContext = new WorkerContext(programFile, context);
-            BLangFunctions
-                    .invokeFunction(programFile, onPartitionsRevoked.getFunctionInfo(),
-                            function.getBValues(consumerStruct, getPartitionsArray(partitions)), childContext);
+            long startNanos = System.nanoTime();
+            commitRevokedOffsets(partitions);
+            invokeFunction(onPartitionsRevoked, partitions);
+            rebalanceMetrics.recordRevoke(startNanos);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Partitions revoked: " + partitions + ", rebalance metrics: " + rebalanceMetrics);
+            }
         }
 
         /**
@@ -156,31 +178,29 @@ public class SubscribeWithPartitionRebalance extends AbstractNativeFunction {
          */
         @Override
         public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
-            ProgramFile programFile = context.getProgramFile();
-            Context childContext = new WorkerContext(programFile, context);
-            BLangFunctions
-                    .invokeFunction(programFile, onPartitionsAssigned.getFunctionInfo(),
-                            function.getBValues(consumerStruct, getPartitionsArray(partitions)), childContext);
-
+            long startNanos = System.nanoTime();
+            invokeFunction(onPartitionsAssigned, partitions);
+            rebalanceMetrics.recordAssign(startNanos);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Partitions assigned: " + partitions + ", rebalance metrics: " + rebalanceMetrics);
+            }
         }
 
-        private BRefValueArray getPartitionsArray(Collection<TopicPartition> partitions) {
-            List<BStruct> assignmentList = new ArrayList<>();
-            if (!partitions.isEmpty()) {
-                partitions.forEach(assignment -> {
-                    BStruct partitionStruct = KafkaUtils.createKafkaPackageStruct(context,
-                            KafkaConstants.TOPIC_PARTITION_STRUCT_NAME);
-                    partitionStruct.setStringField(0, assignment.topic());
-                    partitionStruct.setIntField(0, assignment.partition());
-                    assignmentList.add(partitionStruct);
-                });
+        private void commitRevokedOffsets(Collection<TopicPartition> partitions) {
+            // Only set for consumers which coalesce asynchronous commits.
+            AsyncOffsetCommitter offsetCommitter = KafkaUtils.getAsyncOffsetCommitter(consumerStruct);
+            if (offsetCommitter != null) {
+                offsetCommitter.flush(partitions);
             }
-            return new BRefValueArray(assignmentList.toArray(new BRefType[0]),
-                    KafkaUtils.createKafkaPackageStruct(context,
-                            KafkaConstants.TOPIC_PARTITION_STRUCT_NAME).getType());
+        }
+
+        private void invokeFunction(FunctionRefCPEntry function, Collection<TopicPartition> partitions) {
+            Context childContext = new WorkerContext(programFile, new Context(programFile));
+            BLangFunctions.invokeFunction(programFile, function.getFunctionInfo(),
+                    new BValue[]{consumerStruct, KafkaUtils.createPartitionStructArray(structTypes, partitions)},
+                    childContext);
         }
 
     }
 
 }
-
@@ -29,6 +29,7 @@ import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.Receiver;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 /**
@@ -58,6 +59,7 @@ public class Unsubscribe extends AbstractNativeFunction {
 
         try {
             kafkaConsumer.unsubscribe();
+            KafkaUtils.getOffsetLedger(consumerStruct).clear();
         } catch (KafkaException e) {
             return getBValues(BLangVMErrors.createError(context, 0, e.getMessage()));
         }
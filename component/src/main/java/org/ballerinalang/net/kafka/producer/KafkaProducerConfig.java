@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.ballerinalang.net.kafka.producer;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.ConfigException;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * {@code KafkaProducerConfig} is the validated, immutable configuration of a Kafka producer, compiled once from a
+ * producer configuration struct and cached within the struct. Configuration structs are expected not to change once
+ * a producer connector is initialized with them.
+ */
+public class KafkaProducerConfig {
+
+    private static final Set<String> ACKS_VALUES =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("all", "-1", "0", "1")));
+    private static final Set<String> COMPRESSION_TYPES =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("none", "gzip", "snappy", "lz4")));
+
+    private static final KafkaProducerConfig DEFAULT_CONFIG = new KafkaProducerConfig(
+            KafkaUtils.processKafkaProducerConfig((BStruct) null));
+
+    private final Properties properties;
+    private final String transactionalId;
+
+    KafkaProducerConfig(Properties properties) {
+        validate(properties);
+        this.properties = properties;
+        this.transactionalId = (String) properties.get(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+    }
+
+    /**
+     * Returns the configuration compiled from given producer configuration struct, compiling it on first use.
+     *
+     * @param configStruct ProducerConfig struct, or null for the default configuration.
+     * @return validated producer configuration.
+     * @throws ConfigException if the configuration is invalid.
+     */
+    public static KafkaProducerConfig of(BStruct configStruct) {
+        if (configStruct == null) {
+            return DEFAULT_CONFIG;
+        }
+        KafkaProducerConfig producerConfig = (KafkaProducerConfig) configStruct
+                .getNativeData(KafkaConstants.NATIVE_PRODUCER_CONFIG);
+        if (producerConfig == null) {
+            // Concurrent first uses compile equal configurations, hence either of them can be kept.
+            producerConfig = new KafkaProducerConfig(KafkaUtils.processKafkaProducerConfig(configStruct));
+            configStruct.addNativeData(KafkaConstants.NATIVE_PRODUCER_CONFIG, producerConfig);
+        }
+        return producerConfig;
+    }
+
+    /**
+     * Returns a copy of the producer properties, which can be completed by the connector, i.e. with its bootstrap
+     * servers, and handed over to a Kafka producer.
+     *
+     * @return producer properties.
+     */
+    public Properties toProperties() {
+        return (Properties) this.properties.clone();
+    }
+
+    public String getTransactionalId() {
+        return transactionalId;
+    }
+
+    private static void validate(Properties properties) {
+        KafkaUtils.validateOneOf(properties, ProducerConfig.ACKS_CONFIG, ACKS_VALUES);
+        KafkaUtils.validateOneOf(properties, ProducerConfig.COMPRESSION_TYPE_CONFIG, COMPRESSION_TYPES);
+        Set<String> configNames = ProducerConfig.configNames();
+        for (Map.Entry<Object, Object> entry : properties.entrySet()) {
+            if (configNames.contains(entry.getKey())) {
+                KafkaUtils.validateNonNegative((String) entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
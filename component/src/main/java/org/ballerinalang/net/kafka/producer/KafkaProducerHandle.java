@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.producer;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.KafkaException;
+import org.ballerinalang.bre.BallerinaTransactionContext;
+import org.ballerinalang.bre.BallerinaTransactionManager;
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.net.kafka.transaction.KafkaTransactionContext;
+
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code KafkaProducerHandle} holds the Kafka producer of a producer connector along with the details resolved at
+ * connector initialization, so that actions do not need to resolve them on each invocation.
+ */
+public class KafkaProducerHandle {
+
+    private final KafkaProducer<byte[], byte[]> kafkaProducer;
+    private final Properties producerProperties;
+    private final boolean transactional;
+    private final String connectorKey;
+    private final boolean shared;
+    private final KafkaTransactionalProducerPool producerPool;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * Creates a handle for a non transactional producer.
+     *
+     * @param kafkaProducer      producer of the connector.
+     * @param producerProperties properties of the producer.
+     * @param connectorKey       unique key of the connector.
+     * @param shared             whether the producer is shared through the producer registry.
+     */
+    public KafkaProducerHandle(KafkaProducer<byte[], byte[]> kafkaProducer,
+                               Properties producerProperties,
+                               String connectorKey,
+                               boolean shared) {
+        this.kafkaProducer = kafkaProducer;
+        this.producerProperties = producerProperties;
+        this.transactional = false;
+        this.connectorKey = connectorKey;
+        this.shared = shared;
+        this.producerPool = null;
+    }
+
+    /**
+     * Creates a handle for a transactional connector backed by a pool of transactional producers.
+     *
+     * @param producerPool       transactional producers of the connector.
+     * @param producerProperties properties of the producer.
+     * @param connectorKey       unique key of the connector, used to register its transactions.
+     */
+    public KafkaProducerHandle(KafkaTransactionalProducerPool producerPool,
+                               Properties producerProperties,
+                               String connectorKey) {
+        this.kafkaProducer = producerPool.getPrimaryProducer();
+        this.producerProperties = producerProperties;
+        this.transactional = true;
+        this.connectorKey = connectorKey;
+        this.shared = false;
+        this.producerPool = producerPool;
+    }
+
+    public KafkaProducer<byte[], byte[]> getKafkaProducer() {
+        return kafkaProducer;
+    }
+
+    public Properties getProducerProperties() {
+        return producerProperties;
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    public String getConnectorKey() {
+        return connectorKey;
+    }
+
+    public boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Flushes the producer of the connector, or all the pooled producers of a transactional connector.
+     */
+    public void flush() {
+        if (this.producerPool != null) {
+            this.producerPool.flush();
+        } else {
+            this.kafkaProducer.flush();
+        }
+    }
+
+    /**
+     * Closes the producer of the connector. Shared producer is released to the registry instead, which closes it
+     * once no other connector uses it. Subsequent invocations have no effect.
+     */
+    public void close() {
+        if (!this.closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (this.producerPool != null) {
+            this.producerPool.close();
+        } else if (this.shared) {
+            KafkaProducerRegistry.release(this.producerProperties);
+        } else {
+            this.kafkaProducer.close();
+        }
+    }
+
+    /**
+     * Returns the producer to be used by an action invoked with given context. Within a Ballerina transaction, a
+     * transactional connector checks out a producer from its pool and begins a Kafka transaction on it, which is
+     * used by all the actions of the same Ballerina transaction.
+     *
+     * @param context of the action invocation.
+     * @return producer for the action.
+     */
+    public KafkaProducer<byte[], byte[]> getProducer(Context context) {
+        if (!this.transactional || !context.isInTransaction()) {
+            return this.kafkaProducer;
+        }
+        BallerinaTransactionManager ballerinaTxManager = context.getBallerinaTransactionManager();
+        BallerinaTransactionContext regTxContext = ballerinaTxManager.getTransactionContext(this.connectorKey);
+        if (regTxContext != null) {
+            return ((KafkaTransactionContext) regTxContext).getKafkaProducer();
+        }
+        KafkaProducer<byte[], byte[]> txProducer = this.producerPool.checkOut();
+        try {
+            txProducer.beginTransaction();
+        } catch (IllegalStateException | KafkaException e) {
+            this.producerPool.discard(txProducer);
+            throw e;
+        }
+        ballerinaTxManager.registerTransactionContext(this.connectorKey,
+                new KafkaTransactionContext(txProducer, this.producerPool));
+        return txProducer;
+    }
+}
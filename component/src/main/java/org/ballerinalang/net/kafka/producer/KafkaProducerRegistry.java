@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.producer;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * {@code KafkaProducerRegistry} shares non transactional Kafka producers among producer connectors with equal
+ * producer properties. Shared producer is reference counted and closed once its last connector releases it.
+ * Transactional ids of transactional producer pools are reserved here as well, so that no two pools of the process
+ * create producers with the same transactional ids.
+ */
+public class KafkaProducerRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaProducerRegistry.class);
+
+    private static final Map<Properties, SharedProducer> producers = new HashMap<>();
+    private static final Set<String> transactionalIds = new HashSet<>();
+
+    private KafkaProducerRegistry() {
+    }
+
+    /**
+     * Returns the producer shared for given properties, creating it if no connector holds one.
+     *
+     * @param producerProperties properties of the producer.
+     * @return shared Kafka producer.
+     */
+    public static synchronized KafkaProducer<byte[], byte[]> acquire(Properties producerProperties) {
+        SharedProducer sharedProducer = producers.get(producerProperties);
+        if (sharedProducer == null) {
+            sharedProducer = new SharedProducer(new KafkaProducer<>(producerProperties));
+            // Key is copied, so that later changes to the connector properties do not affect the lookup.
+            producers.put((Properties) producerProperties.clone(), sharedProducer);
+        }
+        sharedProducer.referenceCount++;
+        if (logger.isDebugEnabled()) {
+            logger.debug("Kafka producer acquired, reference count: " + sharedProducer.referenceCount);
+        }
+        return sharedProducer.kafkaProducer;
+    }
+
+    /**
+     * Releases the producer shared for given properties. Producer is closed when it is no longer referenced.
+     *
+     * @param producerProperties properties of the producer.
+     */
+    public static void release(Properties producerProperties) {
+        KafkaProducer<byte[], byte[]> producerToClose = null;
+        synchronized (KafkaProducerRegistry.class) {
+            SharedProducer sharedProducer = producers.get(producerProperties);
+            if (sharedProducer == null) {
+                return;
+            }
+            sharedProducer.referenceCount--;
+            if (sharedProducer.referenceCount == 0) {
+                producers.remove(producerProperties);
+                producerToClose = sharedProducer.kafkaProducer;
+            }
+        }
+        // Close blocks until buffered records are sent, hence it is done outside the lock.
+        if (producerToClose != null) {
+            producerToClose.close();
+        }
+    }
+
+    /**
+     * Reserves given transactional id for a single transactional producer pool.
+     *
+     * @param transactionalId transactional id of the pool.
+     * @throws IllegalStateException if the transactional id is held by another pool.
+     */
+    public static synchronized void reserveTransactionalId(String transactionalId) {
+        if (!transactionalIds.add(transactionalId)) {
+            throw new IllegalStateException("Transactional id " + transactionalId
+                    + " is already used by another producer.");
+        }
+    }
+
+    /**
+     * Releases given transactional id once its pool is closed.
+     *
+     * @param transactionalId transactional id of the pool.
+     */
+    public static synchronized void releaseTransactionalId(String transactionalId) {
+        transactionalIds.remove(transactionalId);
+    }
+
+    private static class SharedProducer {
+
+        private final KafkaProducer<byte[], byte[]> kafkaProducer;
+        private int referenceCount = 0;
+
+        private SharedProducer(KafkaProducer<byte[], byte[]> kafkaProducer) {
+            this.kafkaProducer = kafkaProducer;
+        }
+    }
+}
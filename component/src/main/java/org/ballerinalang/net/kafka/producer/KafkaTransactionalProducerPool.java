@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.kafka.producer;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * {@code KafkaTransactionalProducerPool} holds the transactional producers of a producer connector. A Kafka producer
+ * has a single open transaction at a time, hence each Ballerina transaction checks out its own producer and returns
+ * it once the transaction is committed or rolled back. Configured transactional id is used by the primary producer,
+ * which serves the connector outside transactions and is never checked out, and as the prefix of the transactional
+ * ids of the producers created on demand. Transactional ids of discarded producers are reused by the producers
+ * created next, and a transactional id is held by a single pool within the process.
+ */
+public class KafkaTransactionalProducerPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaTransactionalProducerPool.class);
+
+    private final Properties producerProperties;
+    private final String transactionalIdPrefix;
+    private final KafkaProducer<byte[], byte[]> primaryProducer;
+    private final Deque<KafkaProducer<byte[], byte[]>> idleProducers = new ConcurrentLinkedDeque<>();
+    private final List<KafkaProducer<byte[], byte[]>> producers = new CopyOnWriteArrayList<>();
+    // Indexes of the transactional ids held by open producers, and the indexes freed by discarded producers.
+    private final Map<KafkaProducer<byte[], byte[]>, Integer> producerIndexes = new HashMap<>();
+    private final TreeSet<Integer> freeIndexes = new TreeSet<>();
+    private int nextIndex = 0;
+    private volatile boolean closed = false;
+
+    public KafkaTransactionalProducerPool(Properties producerProperties) {
+        this.producerProperties = producerProperties;
+        this.transactionalIdPrefix = (String) producerProperties.get(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+        // Pools sharing a prefix would create producers with the same transactional ids, fencing each other.
+        KafkaProducerRegistry.reserveTransactionalId(this.transactionalIdPrefix);
+        try {
+            this.primaryProducer = createProducer();
+        } catch (RuntimeException e) {
+            KafkaProducerRegistry.releaseTransactionalId(this.transactionalIdPrefix);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the producer created with the configured transactional id, which serves non transactional operations.
+     *
+     * @return primary producer of the pool.
+     */
+    public KafkaProducer<byte[], byte[]> getPrimaryProducer() {
+        return primaryProducer;
+    }
+
+    /**
+     * Checks out an idle producer, creating a new producer if all the producers are used by other transactions.
+     *
+     * @return producer for exclusive use of a transaction.
+     */
+    public KafkaProducer<byte[], byte[]> checkOut() {
+        if (this.closed) {
+            throw new IllegalStateException("Transactional producer pool is closed.");
+        }
+        KafkaProducer<byte[], byte[]> kafkaProducer = this.idleProducers.poll();
+        if (kafkaProducer == null) {
+            kafkaProducer = createProducer();
+        }
+        if (this.closed) {
+            // Pool is closed while the producer is checked out.
+            discard(kafkaProducer);
+            throw new IllegalStateException("Transactional producer pool is closed.");
+        }
+        return kafkaProducer;
+    }
+
+    /**
+     * Returns a producer to the pool once its transaction is completed.
+     *
+     * @param kafkaProducer producer to be returned.
+     */
+    public void checkIn(KafkaProducer<byte[], byte[]> kafkaProducer) {
+        if (kafkaProducer == this.primaryProducer) {
+            throw new IllegalArgumentException("Primary producer is not checked out from the pool.");
+        }
+        if (this.closed) {
+            discard(kafkaProducer);
+            return;
+        }
+        this.idleProducers.push(kafkaProducer);
+        if (this.closed && this.idleProducers.remove(kafkaProducer)) {
+            // Pool is closed while the producer is returned.
+            discard(kafkaProducer);
+        }
+    }
+
+    /**
+     * Closes and removes a producer which cannot be used anymore, e.g. a producer fenced by another instance.
+     *
+     * @param kafkaProducer producer to be discarded.
+     */
+    public void discard(KafkaProducer<byte[], byte[]> kafkaProducer) {
+        if (this.producers.remove(kafkaProducer)) {
+            kafkaProducer.close();
+            // Index is freed once the producer is closed, so that its successor does not overlap with it.
+            synchronized (this) {
+                Integer producerIndex = this.producerIndexes.remove(kafkaProducer);
+                if (producerIndex != null) {
+                    this.freeIndexes.add(producerIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Flushes all the producers of the pool.
+     */
+    public void flush() {
+        this.producers.forEach(KafkaProducer::flush);
+    }
+
+    /**
+     * Closes all the producers of the pool.
+     */
+    public void close() {
+        synchronized (this) {
+            if (this.closed) {
+                return;
+            }
+            this.closed = true;
+        }
+        this.idleProducers.clear();
+        this.producers.forEach(this::discard);
+        KafkaProducerRegistry.releaseTransactionalId(this.transactionalIdPrefix);
+    }
+
+    /**
+     * Returns the number of producers created and not yet closed by the pool, including the primary producer.
+     *
+     * @return number of open producers.
+     */
+    public int getProducerCount() {
+        return this.producers.size();
+    }
+
+    private synchronized KafkaProducer<byte[], byte[]> createProducer() {
+        Integer freeIndex = this.freeIndexes.pollFirst();
+        int producerIndex = freeIndex != null ? freeIndex : this.nextIndex++;
+        String transactionalId = producerIndex == 0 ? this.transactionalIdPrefix
+                : this.transactionalIdPrefix + "-" + producerIndex;
+        Properties properties = (Properties) this.producerProperties.clone();
+        properties.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+        KafkaProducer<byte[], byte[]> kafkaProducer = null;
+        try {
+            kafkaProducer = new KafkaProducer<>(properties);
+            kafkaProducer.initTransactions();
+        } catch (RuntimeException e) {
+            if (kafkaProducer != null) {
+                kafkaProducer.close();
+            }
+            this.freeIndexes.add(producerIndex);
+            throw e;
+        }
+        this.producerIndexes.put(kafkaProducer, producerIndex);
+        this.producers.add(kafkaProducer);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Transactional producer created with transactional id: " + transactionalId);
+        }
+        return kafkaProducer;
+    }
+}
@@ -21,6 +21,7 @@ package org.ballerinalang.net.kafka.transaction;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.common.KafkaException;
 import org.ballerinalang.bre.BallerinaTransactionContext;
+import org.ballerinalang.net.kafka.producer.KafkaTransactionalProducerPool;
 import org.ballerinalang.util.exceptions.BallerinaException;
 
 import javax.transaction.xa.XAResource;
@@ -31,9 +32,28 @@ import javax.transaction.xa.XAResource;
 public class KafkaTransactionContext implements BallerinaTransactionContext {
 
     private KafkaProducer<byte[], byte[]> kafkaProducer;
+    private KafkaTransactionalProducerPool producerPool;
+    private boolean producerReleased = false;
 
     public KafkaTransactionContext(KafkaProducer<byte[], byte[]> kafkaProducer) {
+        this(kafkaProducer, null);
+    }
+
+    /**
+     * Creates a transaction context for a producer checked out from given pool. Producer is returned to the pool
+     * once the transaction is committed or rolled back.
+     *
+     * @param kafkaProducer producer which the transaction is begun on.
+     * @param producerPool  pool which the producer is checked out from.
+     */
+    public KafkaTransactionContext(KafkaProducer<byte[], byte[]> kafkaProducer,
+                                   KafkaTransactionalProducerPool producerPool) {
         this.kafkaProducer = kafkaProducer;
+        this.producerPool = producerPool;
+    }
+
+    public KafkaProducer<byte[], byte[]> getKafkaProducer() {
+        return kafkaProducer;
     }
 
     /**
@@ -42,10 +62,15 @@ public class KafkaTransactionContext implements BallerinaTransactionContext {
      */
     @Override
     public void commit() {
+        boolean committed = false;
         try {
             this.kafkaProducer.commitTransaction();
+            committed = true;
         } catch (KafkaException ex) {
             throw new BallerinaException("Transaction commit failed:" + ex.getMessage());
+        } finally {
+            // Producer which fails to commit is left with an incomplete transaction, hence it is not reused.
+            releaseProducer(committed);
         }
     }
 
@@ -55,9 +80,16 @@ public class KafkaTransactionContext implements BallerinaTransactionContext {
      */
     @Override
     public void rollback() {
+        if (this.producerReleased) {
+            // Transaction is already completed, e.g. by a commit which failed.
+            return;
+        }
         try {
             this.kafkaProducer.abortTransaction();
+            releaseProducer(true);
         } catch (KafkaException ex) {
+            // Producer which fails to abort cannot begin another transaction.
+            releaseProducer(false);
             throw new BallerinaException("Transaction rollback failed:" + ex.getMessage());
         }
     }
@@ -86,4 +118,16 @@ public class KafkaTransactionContext implements BallerinaTransactionContext {
         return null;
     }
 
+    private void releaseProducer(boolean reusable) {
+        if (this.producerPool == null || this.producerReleased) {
+            return;
+        }
+        this.producerReleased = true;
+        if (reusable) {
+            this.producerPool.checkIn(this.kafkaProducer);
+        } else {
+            this.producerPool.discard(this.kafkaProducer);
+        }
+    }
+
 }
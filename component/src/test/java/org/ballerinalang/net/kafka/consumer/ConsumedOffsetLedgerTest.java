@@ -0,0 +1,54 @@
+/*
+*   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Test cases for positions kept by {@code ConsumedOffsetLedger}.
+ */
+public class ConsumedOffsetLedgerTest {
+
+    private static final TopicPartition PARTITION_0 = new TopicPartition("test", 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition("test", 1);
+
+    @Test(description = "Test positions follow polled records, seeks and assignment changes")
+    public void testPositionsFollowConsumer() {
+        ConsumedOffsetLedger ledger = new ConsumedOffsetLedger();
+        List<ConsumerRecord<byte[], byte[]>> records = Arrays.asList(
+                new ConsumerRecord<>(PARTITION_0.topic(), PARTITION_0.partition(), 5, null, null),
+                new ConsumerRecord<>(PARTITION_0.topic(), PARTITION_0.partition(), 6, null, null));
+        ledger.record(new ConsumerRecords<>(Collections.singletonMap(PARTITION_0, records)));
+        ledger.seek(PARTITION_1, 20);
+        Assert.assertEquals(ledger.getOffsets().get(PARTITION_0).offset(), 7);
+        Assert.assertEquals(ledger.getOffsets().get(PARTITION_1).offset(), 20);
+
+        ledger.retain(Collections.singleton(PARTITION_1));
+        Assert.assertEquals(ledger.getOffsets().keySet(), Collections.singleton(PARTITION_1));
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+*   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.CommonClientConfigs;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.StickyAssignor;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.config.SaslConfigs;
+import org.ballerinalang.model.values.BMap;
+import org.ballerinalang.model.values.BString;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Properties;
+
+/**
+ * Test cases for validation of {@code KafkaConsumerConfig}.
+ */
+public class KafkaConsumerConfigTest {
+
+    @Test(description = "Test valid configuration is compiled and handed over as a copy")
+    public void testValidConfig() {
+        Properties properties = createProperties();
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        properties.put(ConsumerConfig.RECEIVE_BUFFER_CONFIG, -1);
+        KafkaConsumerConfig consumerConfig = new KafkaConsumerConfig(properties);
+        Assert.assertFalse(consumerConfig.isAutoCommit());
+        Assert.assertEquals(consumerConfig.getGroupId(), "test-group");
+
+        Properties copy = consumerConfig.toProperties();
+        copy.put(ConsumerConfig.GROUP_ID_CONFIG, "other-group");
+        Assert.assertEquals(consumerConfig.toProperties().get(ConsumerConfig.GROUP_ID_CONFIG), "test-group");
+    }
+
+    @Test(description = "Test configuration without bootstrap servers is rejected",
+          expectedExceptions = ConfigException.class)
+    public void testMissingBootstrapServers() {
+        Properties properties = createProperties();
+        properties.remove(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG);
+        new KafkaConsumerConfig(properties);
+    }
+
+    @Test(description = "Test unknown offset reset policy is rejected",
+          expectedExceptions = ConfigException.class)
+    public void testInvalidOffsetReset() {
+        Properties properties = createProperties();
+        properties.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "smallest");
+        new KafkaConsumerConfig(properties);
+    }
+
+    @Test(description = "Test negative Kafka client parameter is rejected",
+          expectedExceptions = ConfigException.class)
+    public void testNegativeParameter() {
+        Properties properties = createProperties();
+        properties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, -5);
+        new KafkaConsumerConfig(properties);
+    }
+
+    @Test(description = "Test sticky partition assignment strategy is resolved to the sticky assignor")
+    public void testStickyAssignmentStrategy() {
+        BMap<String, BValue> consumerConfig = new BMap<>();
+        consumerConfig.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, new BString("localhost:9094"));
+        consumerConfig.put(ConsumerConfig.GROUP_ID_CONFIG, new BString("test-group"));
+        consumerConfig.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG,
+                new BString(KafkaConstants.PARTITION_ASSIGNMENT_STRATEGY_STICKY));
+        Properties properties = new KafkaConsumerConfig(KafkaUtils.processKafkaConsumerConfig(consumerConfig))
+                .toProperties();
+        Assert.assertEquals(properties.get(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG),
+                StickyAssignor.class.getName());
+    }
+
+    @Test(description = "Test transactional producer keeps the connection properties of the service consumer")
+    public void testTransactionProducerConfig() {
+        Properties properties = createProperties();
+        properties.put(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG, "SASL_SSL");
+        properties.put(SaslConfigs.SASL_MECHANISM, "PLAIN");
+        properties.put(ConsumerConfig.CLIENT_ID_CONFIG, "test-client");
+        properties.put(KafkaConstants.ALIAS_DECOUPLE_PROCESSING, true);
+        Properties producerProperties = KafkaUtils.processTransactionProducerConfig(properties, "test-transaction");
+        Assert.assertEquals(producerProperties.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG), "localhost:9094");
+        Assert.assertEquals(producerProperties.get(CommonClientConfigs.SECURITY_PROTOCOL_CONFIG), "SASL_SSL");
+        Assert.assertEquals(producerProperties.get(SaslConfigs.SASL_MECHANISM), "PLAIN");
+        Assert.assertEquals(producerProperties.get(ProducerConfig.CLIENT_ID_CONFIG), "test-client");
+        Assert.assertEquals(producerProperties.get(ProducerConfig.TRANSACTIONAL_ID_CONFIG), "test-transaction");
+        Assert.assertFalse(producerProperties.containsKey(ConsumerConfig.GROUP_ID_CONFIG));
+        Assert.assertFalse(producerProperties.containsKey(KafkaConstants.ALIAS_DECOUPLE_PROCESSING));
+    }
+
+    private Properties createProperties() {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        properties.put(ConsumerConfig.GROUP_ID_CONFIG, "test-group");
+        return properties;
+    }
+}
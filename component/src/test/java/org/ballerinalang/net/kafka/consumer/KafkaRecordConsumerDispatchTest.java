@@ -0,0 +1,762 @@
+/*
+*   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+
+package org.ballerinalang.net.kafka.consumer;
+
+import io.debezium.kafka.KafkaCluster;
+import io.debezium.util.Testing;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.StickyAssignor;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.ProducerFencedException;
+import org.ballerinalang.connector.api.BallerinaConnectorException;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.future.KafkaDispatchFutureListener;
+import org.ballerinalang.net.kafka.future.KafkaPollCycleFutureListener;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test cases for dispatching records of {@code KafkaRecordConsumer} to resources.
+ */
+public class KafkaRecordConsumerDispatchTest {
+
+    private static final int POLLING_TIMEOUT = 50;
+    private static final int POLLING_INTERVAL = 1000;
+    private static final int PROCESSING_TIME = 200;
+
+    private static File dataDir;
+    protected static KafkaCluster kafkaCluster;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        Properties prop = new Properties();
+        prop.put("transaction.state.log.replication.factor", "1");
+        prop.put("transaction.state.log.min.isr", "1");
+        kafkaCluster = kafkaCluster().deleteDataPriorToStartup(true)
+                .deleteDataUponShutdown(true).withKafkaConfiguration(prop).addBrokers(1).startup();
+        kafkaCluster.createTopic("key-ordered", 1, 1);
+        kafkaCluster.createTopic("partitioned-failure", 1, 1);
+        kafkaCluster.createTopic("key-ordered-failure", 1, 1);
+        kafkaCluster.createTopic("transactional-input", 1, 1);
+        kafkaCluster.createTopic("transactional-output", 1, 1);
+        kafkaCluster.createTopic("transactional-fenced", 1, 1);
+        kafkaCluster.createTopic("rebalance", 2, 1);
+        kafkaCluster.createTopic("sticky-rebalance", 2, 1);
+        kafkaCluster.createTopic("rebalance-positions", 2, 1);
+        kafkaCluster.createTopic("drain", 1, 1);
+        kafkaCluster.createTopic("drain-timeout", 1, 1);
+    }
+
+    @Test(description = "Test records of a key are processed in order while different keys are processed concurrently")
+    public void testKeyOrderedDispatch() throws InterruptedException {
+        String topic = "key-ordered";
+        int keyCount = 4;
+        int recordCount = 20;
+        produceKeyed(topic, keyCount, recordCount);
+        KeyOrderRecordingListener listener = new KeyOrderRecordingListener(recordCount);
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(KafkaConstants.ALIAS_KEY_ORDERED_CONCURRENCY, keyCount);
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, configParams, "key-ordered-service", 0);
+        consumer.consume();
+        try {
+            Assert.assertTrue(listener.processed.await(30, TimeUnit.SECONDS), "Records were not processed.");
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertTrue(listener.errors.isEmpty(), "Consumer failed: " + listener.errors);
+        Assert.assertEquals(listener.valuesByKey.size(), keyCount);
+        for (Map.Entry<String, List<Integer>> entry : listener.valuesByKey.entrySet()) {
+            List<Integer> values = new ArrayList<>(entry.getValue());
+            List<Integer> orderedValues = new ArrayList<>(values);
+            Collections.sort(orderedValues);
+            Assert.assertEquals(values, orderedValues, "Records of " + entry.getKey() + " were reordered.");
+        }
+        Assert.assertTrue(listener.maxConcurrentLanes.get() > 1, "Keys were not processed concurrently.");
+    }
+
+    @Test(description = "Test records of a failed lane are dispatched again and their offsets are not skipped")
+    public void testFailedLaneRedelivery() throws InterruptedException {
+        String topic = "partitioned-failure";
+        int recordCount = 10;
+        produceKeyed(topic, 1, recordCount);
+        FailingLaneListener listener = new FailingLaneListener("key-0", recordCount);
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(KafkaConstants.ALIAS_PARTITIONED_DISPATCH, true);
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, configParams, "partitioned-failure-service",
+                0);
+        consumer.consume();
+        try {
+            Assert.assertTrue(listener.processed.await(30, TimeUnit.SECONDS), "Failed records were not redelivered.");
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertTrue(listener.failed.get(), "Lane was not failed.");
+        Assert.assertTrue(listener.errors.isEmpty(), "Consumer failed: " + listener.errors);
+        OffsetAndMetadata committedOffset = getCommittedOffset(topic);
+        Assert.assertNotNull(committedOffset, "Offsets of the processed records were not committed.");
+        Assert.assertEquals(committedOffset.offset(), recordCount);
+    }
+
+    @Test(description = "Test a failed key lane does not advance committed offsets past its records")
+    public void testFailedKeyLaneRedelivery() throws InterruptedException {
+        String topic = "key-ordered-failure";
+        int keyCount = 4;
+        int recordCount = 20;
+        produceKeyed(topic, keyCount, recordCount);
+        FailingLaneListener listener = new FailingLaneListener("key-1", recordCount);
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(KafkaConstants.ALIAS_KEY_ORDERED_CONCURRENCY, keyCount);
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, configParams, "key-ordered-failure-service",
+                0);
+        consumer.consume();
+        try {
+            Assert.assertTrue(listener.processed.await(30, TimeUnit.SECONDS), "Failed records were not redelivered.");
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertTrue(listener.failed.get(), "Lane was not failed.");
+        Assert.assertTrue(listener.errors.isEmpty(), "Consumer failed: " + listener.errors);
+        OffsetAndMetadata committedOffset = getCommittedOffset(topic);
+        Assert.assertNotNull(committedOffset, "Offsets of the processed records were not committed.");
+        Assert.assertEquals(committedOffset.offset(), recordCount);
+    }
+
+    @Test(description = "Test records produced by a failed batch are aborted and its offsets are not committed")
+    public void testTransactionalDispatch() throws InterruptedException {
+        String topic = "transactional-input";
+        String outputTopic = "transactional-output";
+        int recordCount = 5;
+        produceKeyed(topic, 1, recordCount);
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(KafkaConstants.ALIAS_DECOUPLE_PROCESSING, false);
+        configParams.put(KafkaConstants.ALIAS_TRANSACTIONAL_ID, "transactional-service");
+
+        TransactionalListener failingListener = new TransactionalListener(outputTopic, false, recordCount);
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(failingListener, configParams,
+                "transactional-service", 0);
+        consumer.consume();
+        try {
+            // Failed batch is polled again, hence the resource is invoked once more.
+            Assert.assertTrue(failingListener.attempts.await(30, TimeUnit.SECONDS), "Batch was not polled again.");
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertFalse(readOutput(outputTopic, "read_uncommitted").isEmpty(), "Records were not produced.");
+        Assert.assertTrue(readOutput(outputTopic, "read_committed").isEmpty(), "Aborted records are visible.");
+        Assert.assertNull(getCommittedOffset(topic), "Offsets of the failed batch were committed.");
+
+        TransactionalListener listener = new TransactionalListener(outputTopic, true, recordCount);
+        consumer = new KafkaRecordConsumer(listener, configParams, "transactional-service", 0);
+        consumer.consume();
+        try {
+            Assert.assertTrue(listener.processed.await(30, TimeUnit.SECONDS), "Records were not processed.");
+            // Offsets are committed along with the transaction, once the resource completes.
+            long deadline = System.currentTimeMillis() + 30000;
+            OffsetAndMetadata committedOffset = getCommittedOffset(topic);
+            while ((committedOffset == null || committedOffset.offset() < recordCount)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(PROCESSING_TIME);
+                committedOffset = getCommittedOffset(topic);
+            }
+            Assert.assertNotNull(committedOffset, "Offsets of the batch were not committed.");
+            Assert.assertEquals(committedOffset.offset(), recordCount);
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertTrue(listener.errors.isEmpty(), "Consumer failed: " + listener.errors);
+        Assert.assertEquals(readOutput(outputTopic, "read_committed").size(), recordCount);
+    }
+
+    @Test(description = "Test consumer is stopped once its transactional producer is fenced by another producer")
+    public void testFencedTransactionalDispatch() throws InterruptedException {
+        String topic = "transactional-fenced";
+        produceKeyed(topic, 1, 5);
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(KafkaConstants.ALIAS_DECOUPLE_PROCESSING, false);
+        configParams.put(KafkaConstants.ALIAS_TRANSACTIONAL_ID, "fenced-service");
+        // Transactional id of the consumer is suffixed with its consumer id.
+        FencingListener listener = new FencingListener("fenced-service-0");
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, configParams, "fenced-service", 0);
+        consumer.consume();
+        try {
+            long deadline = System.currentTimeMillis() + 30000;
+            while (listener.errors.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(PROCESSING_TIME);
+            }
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertEquals(listener.errors.size(), 1, "Consumer errors: " + listener.errors);
+        Throwable error = listener.errors.get(0);
+        Assert.assertTrue(error instanceof IllegalStateException, "Unexpected error: " + error);
+        Assert.assertTrue(error.getCause() instanceof ProducerFencedException, "Unexpected cause: " + error);
+        Assert.assertEquals(listener.batches.get(), 1, "Records were dispatched after the producer was fenced.");
+        Assert.assertNull(getCommittedOffset(topic), "Offsets of the fenced transaction were committed.");
+    }
+
+    @Test(description = "Test rebalance resources are dispatched with the partitions which move between consumers")
+    public void testRebalanceDispatch() throws InterruptedException {
+        String topic = "rebalance";
+        assertRebalanceDispatch(topic, getConsumerConfig(topic));
+    }
+
+    @Test(description = "Test rebalance resources are dispatched with the moving partitions under sticky assignment")
+    public void testStickyRebalanceDispatch() throws InterruptedException {
+        String topic = "sticky-rebalance";
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, StickyAssignor.class.getName());
+        assertRebalanceDispatch(topic, configParams);
+    }
+
+    private void assertRebalanceDispatch(String topic, Properties configParams) throws InterruptedException {
+        TopicPartition partition0 = new TopicPartition(topic, 0);
+        TopicPartition partition1 = new TopicPartition(topic, 1);
+        RebalanceRecordingListener firstListener = new RebalanceRecordingListener();
+        RebalanceRecordingListener secondListener = new RebalanceRecordingListener();
+        KafkaRecordConsumer firstConsumer = new KafkaRecordConsumer(firstListener, configParams, "rebalance-service",
+                0);
+        KafkaRecordConsumer secondConsumer = new KafkaRecordConsumer(secondListener, configParams,
+                "rebalance-service", 1);
+        firstConsumer.consume();
+        try {
+            Assert.assertEquals(firstListener.nextAssigned(), setOf(partition0, partition1));
+
+            secondConsumer.consume();
+            Set<TopicPartition> movedPartitions;
+            try {
+                movedPartitions = firstListener.nextRevoked();
+                Assert.assertEquals(movedPartitions.size(), 1, "Partitions moved: " + movedPartitions);
+                Assert.assertEquals(secondListener.nextAssigned(), movedPartitions);
+                // Partition kept by the first consumer is not dispatched again.
+                Assert.assertTrue(firstListener.assigned.isEmpty(), "Kept partition was dispatched as assigned.");
+            } finally {
+                secondConsumer.stopConsume();
+            }
+            Assert.assertEquals(firstListener.nextAssigned(), movedPartitions);
+            // Resources access the consumer through the command queue while the rebalance is in progress.
+            Assert.assertEquals(firstListener.assignments.get(firstListener.assignments.size() - 1),
+                    setOf(partition0, partition1));
+        } finally {
+            firstConsumer.stopConsume();
+        }
+        Assert.assertTrue(firstListener.errors.isEmpty(), "Consumer failed: " + firstListener.errors);
+        Assert.assertTrue(secondListener.errors.isEmpty(), "Consumer failed: " + secondListener.errors);
+    }
+
+    @Test(description = "Test records in flight on partitions kept across a rebalance are not dispatched again")
+    public void testRebalanceKeepsPositions() throws InterruptedException {
+        String topic = "rebalance-positions";
+        int recordCount = 20;
+        producePartitioned(topic, 2, recordCount);
+        Set<String> processedRecords = ConcurrentHashMap.newKeySet();
+        OffsetRecordingListener firstListener = new OffsetRecordingListener(processedRecords, PROCESSING_TIME * 10);
+        OffsetRecordingListener secondListener = new OffsetRecordingListener(processedRecords, 0);
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(KafkaConstants.ALIAS_PARTITIONED_DISPATCH, true);
+        KafkaRecordConsumer firstConsumer = new KafkaRecordConsumer(firstListener, configParams,
+                "rebalance-positions-service", 0);
+        KafkaRecordConsumer secondConsumer = new KafkaRecordConsumer(secondListener, configParams,
+                "rebalance-positions-service", 1);
+        firstConsumer.consume();
+        try {
+            Assert.assertTrue(firstListener.dispatched.await(30, TimeUnit.SECONDS), "Records were not dispatched.");
+            // Lanes of the first consumer are still in flight while the second consumer joins.
+            secondConsumer.consume();
+            try {
+                long deadline = System.currentTimeMillis() + 30000;
+                while (processedRecords.size() < recordCount && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(POLLING_TIMEOUT);
+                }
+                Assert.assertEquals(processedRecords.size(), recordCount, "Records were not processed.");
+                // Records which would be fetched again after the lanes complete are given time to be dispatched.
+                Thread.sleep(POLLING_INTERVAL);
+                Assert.assertEquals(secondListener.dispatched.getCount(), 0, "Partitions were not scaled out.");
+                Assert.assertTrue(firstListener.duplicates.isEmpty(),
+                        "Records were dispatched again: " + firstListener.duplicates);
+            } finally {
+                secondConsumer.stopConsume();
+            }
+        } finally {
+            firstConsumer.stopConsume();
+        }
+        Assert.assertTrue(firstListener.errors.isEmpty(), "Consumer failed: " + firstListener.errors);
+        Assert.assertTrue(secondListener.errors.isEmpty(), "Consumer failed: " + secondListener.errors);
+    }
+
+    @Test(description = "Test batches in flight are completed and committed before the consumer is stopped")
+    public void testDrainOnStop() throws InterruptedException {
+        String topic = "drain";
+        int recordCount = 10;
+        produceKeyed(topic, 1, recordCount);
+        DelayedCompletionListener listener = new DelayedCompletionListener(PROCESSING_TIME * 5);
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(KafkaConstants.ALIAS_DRAIN_TIMEOUT, 30000);
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, configParams, "drain-service", 0);
+        consumer.consume();
+        try {
+            Assert.assertTrue(listener.dispatched.await(30, TimeUnit.SECONDS), "Records were not dispatched.");
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertEquals(listener.completedRecords.get(), listener.dispatchedRecords.get(),
+                "Consumer was stopped before the batches in flight were completed.");
+        Assert.assertTrue(listener.errors.isEmpty(), "Consumer failed: " + listener.errors);
+        OffsetAndMetadata committedOffset = getCommittedOffset(topic);
+        Assert.assertNotNull(committedOffset, "Offsets of the drained batches were not committed.");
+        Assert.assertEquals(committedOffset.offset(), listener.dispatchedRecords.get());
+    }
+
+    @Test(description = "Test batches still in flight at the drain timeout are not committed")
+    public void testDrainTimeout() throws InterruptedException {
+        String topic = "drain-timeout";
+        int drainTimeout = PROCESSING_TIME * 2;
+        produceKeyed(topic, 1, 10);
+        DelayedCompletionListener listener = new DelayedCompletionListener(drainTimeout * 10);
+        Properties configParams = getConsumerConfig(topic);
+        configParams.put(KafkaConstants.ALIAS_DRAIN_TIMEOUT, drainTimeout);
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, configParams, "drain-timeout-service", 0);
+        consumer.consume();
+        long stopStartTime;
+        try {
+            Assert.assertTrue(listener.dispatched.await(30, TimeUnit.SECONDS), "Records were not dispatched.");
+        } finally {
+            stopStartTime = System.currentTimeMillis();
+            consumer.stopConsume();
+        }
+        Assert.assertTrue(System.currentTimeMillis() - stopStartTime < drainTimeout * 10,
+                "Consumer was not stopped at the drain timeout.");
+        Assert.assertEquals(listener.completedRecords.get(), 0);
+        // Abandoned records are processed again by the consumer the partition is assigned to next.
+        Assert.assertNull(getCommittedOffset(topic), "Offsets of the abandoned batches were committed.");
+    }
+
+    private static Set<TopicPartition> setOf(TopicPartition... partitions) {
+        return new HashSet<>(Arrays.asList(partitions));
+    }
+
+    private List<String> readOutput(String topic, String isolationLevel) {
+        Properties configParams = new Properties();
+        configParams.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        configParams.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, isolationLevel);
+        KafkaUtils.processDefaultConsumerProperties(configParams);
+        List<String> values = new ArrayList<>();
+        try (KafkaConsumer<byte[], byte[]> kafkaConsumer = new KafkaConsumer<>(configParams)) {
+            TopicPartition partition = new TopicPartition(topic, 0);
+            kafkaConsumer.assign(Collections.singletonList(partition));
+            kafkaConsumer.seekToBeginning(Collections.singletonList(partition));
+            ConsumerRecords<byte[], byte[]> records;
+            do {
+                records = kafkaConsumer.poll(POLLING_INTERVAL);
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    values.add(new String(record.value(), StandardCharsets.UTF_8));
+                }
+            } while (!records.isEmpty());
+        }
+        return values;
+    }
+
+    private OffsetAndMetadata getCommittedOffset(String topic) {
+        Properties configParams = new Properties();
+        configParams.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        configParams.put(ConsumerConfig.GROUP_ID_CONFIG, topic + "-group");
+        KafkaUtils.processDefaultConsumerProperties(configParams);
+        try (KafkaConsumer<byte[], byte[]> kafkaConsumer = new KafkaConsumer<>(configParams)) {
+            return kafkaConsumer.committed(new TopicPartition(topic, 0));
+        }
+    }
+
+    private void produceKeyed(String topic, int keyCount, int recordCount) {
+        Properties configParams = new Properties();
+        configParams.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        KafkaUtils.processDefaultProducerProperties(configParams);
+        try (KafkaProducer<byte[], byte[]> kafkaProducer = new KafkaProducer<>(configParams)) {
+            for (int counter = 0; counter < recordCount; counter++) {
+                byte[] key = ("key-" + (counter % keyCount)).getBytes(StandardCharsets.UTF_8);
+                byte[] value = String.valueOf(counter).getBytes(StandardCharsets.UTF_8);
+                kafkaProducer.send(new ProducerRecord<>(topic, key, value));
+            }
+            kafkaProducer.flush();
+        }
+    }
+
+    private void producePartitioned(String topic, int partitionCount, int recordCount) {
+        Properties configParams = new Properties();
+        configParams.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        KafkaUtils.processDefaultProducerProperties(configParams);
+        try (KafkaProducer<byte[], byte[]> kafkaProducer = new KafkaProducer<>(configParams)) {
+            for (int counter = 0; counter < recordCount; counter++) {
+                byte[] value = String.valueOf(counter).getBytes(StandardCharsets.UTF_8);
+                kafkaProducer.send(new ProducerRecord<>(topic, counter % partitionCount, null, value));
+            }
+            kafkaProducer.flush();
+        }
+    }
+
+    private Properties getConsumerConfig(String topic) {
+        Properties configParams = new Properties();
+        configParams.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        configParams.put(ConsumerConfig.GROUP_ID_CONFIG, topic + "-group");
+        configParams.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configParams.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        ArrayList<String> topics = new ArrayList<>();
+        topics.add(topic);
+        configParams.put(KafkaConstants.ALIAS_TOPICS, topics);
+        configParams.put(KafkaConstants.ALIAS_POLLING_TIMEOUT, POLLING_TIMEOUT);
+        configParams.put(KafkaConstants.ALIAS_POLLING_INTERVAL, POLLING_INTERVAL);
+        configParams.put(KafkaConstants.ALIAS_POLLING_MODE, KafkaConstants.POLLING_MODE_CONTINUOUS);
+        configParams.put(KafkaConstants.ALIAS_DECOUPLE_PROCESSING, true);
+        KafkaUtils.processDefaultConsumerProperties(configParams);
+        return configParams;
+    }
+
+    @AfterClass
+    public void tearDown() {
+        if (kafkaCluster != null) {
+            kafkaCluster.shutdown();
+            kafkaCluster = null;
+            boolean delete = dataDir.delete();
+            // If files are still locked and a test fails: delete on exit to allow subsequent test execution
+            if (!delete) {
+                dataDir.deleteOnExit();
+            }
+        }
+    }
+
+    protected static KafkaCluster kafkaCluster() {
+        if (kafkaCluster != null) {
+            throw new IllegalStateException();
+        }
+        dataDir = Testing.Files.createTestingDirectory("cluster-kafka-consumer");
+        kafkaCluster = new KafkaCluster().usingDirectory(dataDir).withPorts(2185, 9094);
+        return kafkaCluster;
+    }
+
+    /**
+     * Kafka listener which completes each batch after a delay on a thread of its own.
+     */
+    private static class DelayedCompletionListener extends TestKafkaListener {
+
+        private final int delay;
+        private final CountDownLatch dispatched = new CountDownLatch(1);
+        private final AtomicInteger dispatchedRecords = new AtomicInteger();
+        private final AtomicInteger completedRecords = new AtomicInteger();
+
+        private DelayedCompletionListener(int delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaDispatchFutureListener listener) {
+            dispatchedRecords.addAndGet(records.count());
+            dispatched.countDown();
+            new Thread(() -> {
+                try {
+                    Thread.sleep(delay);
+                    completedRecords.addAndGet(records.count());
+                    listener.notifySuccess();
+                } catch (InterruptedException e) {
+                    errors.add(e);
+                }
+            }).start();
+        }
+    }
+
+    /**
+     * Kafka listener which keeps track of records dispatched more than once, and completes each lane after a delay
+     * on a thread of its own.
+     */
+    private static class OffsetRecordingListener extends TestKafkaListener {
+
+        private final Set<String> processedRecords;
+        private final int delay;
+        private final Set<String> dispatchedRecords = ConcurrentHashMap.newKeySet();
+        private final List<String> duplicates = new CopyOnWriteArrayList<>();
+        private final CountDownLatch dispatched = new CountDownLatch(1);
+
+        private OffsetRecordingListener(Set<String> processedRecords, int delay) {
+            this.processedRecords = processedRecords;
+            this.delay = delay;
+        }
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaDispatchFutureListener listener) {
+            List<String> recordIds = new ArrayList<>();
+            for (Object item : records) {
+                ConsumerRecord record = (ConsumerRecord) item;
+                String recordId = record.partition() + "-" + record.offset();
+                if (!dispatchedRecords.add(recordId)) {
+                    duplicates.add(recordId);
+                }
+                recordIds.add(recordId);
+            }
+            dispatched.countDown();
+            new Thread(() -> {
+                try {
+                    Thread.sleep(delay);
+                    processedRecords.addAll(recordIds);
+                    listener.notifySuccess();
+                } catch (InterruptedException e) {
+                    errors.add(e);
+                }
+            }).start();
+        }
+    }
+
+    /**
+     * Kafka listener which records the partitions its rebalance resources are dispatched with. Assign resource
+     * reads the assignment of the consumer from a thread of its own, as resources are executed by the engine.
+     */
+    private static class RebalanceRecordingListener extends TestKafkaListener {
+
+        private final BlockingQueue<Set<TopicPartition>> assigned = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Set<TopicPartition>> revoked = new LinkedBlockingQueue<>();
+        private final List<Set<TopicPartition>> assignments = new CopyOnWriteArrayList<>();
+
+        @Override
+        public boolean onPartitionsRevoked(KafkaConsumer kafkaConsumer, KafkaConsumerCommandQueue commandQueue,
+                                           Collection<TopicPartition> partitions,
+                                           KafkaPollCycleFutureListener listener) {
+            revoked.add(new HashSet<>(partitions));
+            listener.notifySuccess();
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean onPartitionsAssigned(KafkaConsumer kafkaConsumer, KafkaConsumerCommandQueue commandQueue,
+                                            Collection<TopicPartition> partitions,
+                                            KafkaPollCycleFutureListener listener) {
+            Set<TopicPartition> assignedPartitions = new HashSet<>(partitions);
+            new Thread(() -> {
+                try {
+                    commandQueue.execute(() -> assignments.add(new HashSet<>(kafkaConsumer.assignment())));
+                } catch (RuntimeException e) {
+                    errors.add(e);
+                } finally {
+                    assigned.add(assignedPartitions);
+                    listener.notifySuccess();
+                }
+            }).start();
+            return true;
+        }
+
+        private Set<TopicPartition> nextAssigned() throws InterruptedException {
+            Set<TopicPartition> partitions = assigned.poll(30, TimeUnit.SECONDS);
+            Assert.assertNotNull(partitions, "Assign resource was not dispatched.");
+            return partitions;
+        }
+
+        private Set<TopicPartition> nextRevoked() throws InterruptedException {
+            Set<TopicPartition> partitions = revoked.poll(30, TimeUnit.SECONDS);
+            Assert.assertNotNull(partitions, "Revoke resource was not dispatched.");
+            return partitions;
+        }
+    }
+
+    /**
+     * Kafka listener which produces each record it receives to an output topic with the transactional producer of the
+     * consumer, and either fails or completes each batch.
+     */
+    private static class TransactionalListener extends TestKafkaListener {
+
+        private final String outputTopic;
+        private final boolean succeeding;
+        private final CountDownLatch attempts = new CountDownLatch(2);
+        private final CountDownLatch processed;
+        private KafkaProducer<byte[], byte[]> transactionProducer;
+
+        private TransactionalListener(String outputTopic, boolean succeeding, int recordCount) {
+            this.outputTopic = outputTopic;
+            this.succeeding = succeeding;
+            this.processed = new CountDownLatch(recordCount);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void onConsumerStarted(KafkaConsumer kafkaConsumer, KafkaConsumerCommandQueue commandQueue,
+                                      KafkaProducer transactionProducer, ConsumedOffsetLedger offsetLedger,
+                                      AsyncOffsetCommitter offsetCommitter, RebalanceMetrics rebalanceMetrics,
+                                      String groupID) {
+            this.transactionProducer = transactionProducer;
+        }
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaPollCycleFutureListener listener, String groupID) {
+            for (Object item : records) {
+                ConsumerRecord record = (ConsumerRecord) item;
+                transactionProducer.send(new ProducerRecord<>(outputTopic, (byte[]) record.value()));
+            }
+            attempts.countDown();
+            if (succeeding) {
+                for (int i = 0; i < records.count(); i++) {
+                    processed.countDown();
+                }
+                listener.notifySuccess();
+            } else {
+                listener.notifyFailure(new BallerinaConnectorException("Batch failed."));
+            }
+        }
+    }
+
+    /**
+     * Kafka listener which fails the first lane containing records of the given key, and completes the rest of the
+     * lanes on a thread of their own.
+     */
+    private static class FailingLaneListener extends TestKafkaListener {
+
+        private final String failingKey;
+        private final AtomicBoolean failed = new AtomicBoolean();
+        private final Set<Integer> processedValues = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch processed;
+
+        private FailingLaneListener(String failingKey, int recordCount) {
+            this.failingKey = failingKey;
+            this.processed = new CountDownLatch(recordCount);
+        }
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaDispatchFutureListener listener) {
+            new Thread(() -> {
+                boolean failing = false;
+                for (Object item : records) {
+                    String key = new String((byte[]) ((ConsumerRecord) item).key(), StandardCharsets.UTF_8);
+                    failing |= failingKey.equals(key);
+                }
+                if (failing && failed.compareAndSet(false, true)) {
+                    listener.notifyFailure(new BallerinaConnectorException("Lane failed."));
+                    return;
+                }
+                for (Object item : records) {
+                    ConsumerRecord record = (ConsumerRecord) item;
+                    int value = Integer.parseInt(new String((byte[]) record.value(), StandardCharsets.UTF_8));
+                    if (processedValues.add(value)) {
+                        processed.countDown();
+                    }
+                }
+                listener.notifySuccess();
+            }).start();
+        }
+    }
+
+    /**
+     * Kafka listener which fences the transactional producer of the consumer by initializing transactions of
+     * another producer with the same transactional id, before completing the batch.
+     */
+    private static class FencingListener extends TestKafkaListener {
+
+        private final String transactionalId;
+        private final AtomicInteger batches = new AtomicInteger();
+
+        private FencingListener(String transactionalId) {
+            this.transactionalId = transactionalId;
+        }
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaPollCycleFutureListener listener, String groupID) {
+            batches.incrementAndGet();
+            Properties configParams = new Properties();
+            configParams.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+            configParams.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+            KafkaUtils.processDefaultProducerProperties(configParams);
+            try (KafkaProducer<byte[], byte[]> kafkaProducer = new KafkaProducer<>(configParams)) {
+                kafkaProducer.initTransactions();
+            }
+            listener.notifySuccess();
+        }
+    }
+
+    /**
+     * Kafka listener which processes each lane on a thread of its own and records the order records of each key
+     * are processed in.
+     */
+    private static class KeyOrderRecordingListener extends TestKafkaListener {
+
+        private final Map<String, List<Integer>> valuesByKey = new ConcurrentHashMap<>();
+        private final AtomicInteger concurrentLanes = new AtomicInteger();
+        private final AtomicInteger maxConcurrentLanes = new AtomicInteger();
+        private final CountDownLatch processed;
+
+        private KeyOrderRecordingListener(int recordCount) {
+            this.processed = new CountDownLatch(recordCount);
+        }
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaDispatchFutureListener listener) {
+            new Thread(() -> {
+                int lanes = concurrentLanes.incrementAndGet();
+                maxConcurrentLanes.accumulateAndGet(lanes, Math::max);
+                try {
+                    for (Object item : records) {
+                        ConsumerRecord record = (ConsumerRecord) item;
+                        Thread.sleep(PROCESSING_TIME / records.count());
+                        String key = new String((byte[]) record.key(), StandardCharsets.UTF_8);
+                        int value = Integer.parseInt(new String((byte[]) record.value(), StandardCharsets.UTF_8));
+                        valuesByKey.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
+                                .add(value);
+                        processed.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    errors.add(e);
+                } finally {
+                    concurrentLanes.decrementAndGet();
+                    listener.notifySuccess();
+                }
+            }).start();
+        }
+    }
+
+}
@@ -0,0 +1,343 @@
+/*
+*   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+package org.ballerinalang.net.kafka.consumer;
+
+import io.debezium.kafka.KafkaCluster;
+import io.debezium.util.Testing;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.ballerinalang.net.kafka.KafkaConstants;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.ballerinalang.net.kafka.future.KafkaDispatchFutureListener;
+import org.ballerinalang.net.kafka.future.KafkaPollCycleFutureListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test cases for measuring end to end latency of {@code KafkaRecordConsumer} in scheduled, continuous and shared
+ * polling modes, and for consumer access of resources and backpressure while the consumer polls.
+ */
+public class KafkaRecordConsumerPollingModeTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaRecordConsumerPollingModeTest.class);
+
+    private static final int POLLING_INTERVAL = 2000;
+    private static final int POLLING_TIMEOUT = 50;
+    private static final int MESSAGE_COUNT = 5;
+
+    private static File dataDir;
+    protected static KafkaCluster kafkaCluster;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        Properties prop = new Properties();
+        kafkaCluster = kafkaCluster().deleteDataPriorToStartup(true)
+                .deleteDataUponShutdown(true).withKafkaConfiguration(prop).addBrokers(1).startup();
+        kafkaCluster.createTopic("latency-scheduled", 1, 1);
+        kafkaCluster.createTopic("latency-continuous", 1, 1);
+        kafkaCluster.createTopic("latency-shared", 1, 1);
+        kafkaCluster.createTopic("commit-continuous", 1, 1);
+        kafkaCluster.createTopic("backpressure", 1, 1);
+    }
+
+    @Test(description = "Test end to end latency of scheduled and continuous polling modes")
+    public void testPollingModeLatency() throws InterruptedException {
+        long scheduledLatency = measureAverageLatency(KafkaConstants.POLLING_MODE_SCHEDULED, "latency-scheduled");
+        long continuousLatency = measureAverageLatency(KafkaConstants.POLLING_MODE_CONTINUOUS,
+                "latency-continuous");
+        logger.info("Average end to end latency, scheduled mode: " + scheduledLatency
+                + "ms, continuous mode: " + continuousLatency + "ms.");
+        Assert.assertTrue(continuousLatency < POLLING_INTERVAL / 2,
+                "Continuous polling latency " + continuousLatency + "ms is not below half the polling interval.");
+        Assert.assertTrue(continuousLatency < scheduledLatency,
+                "Continuous polling latency " + continuousLatency + "ms is not below scheduled polling latency "
+                        + scheduledLatency + "ms.");
+    }
+
+    @Test(description = "Test end to end latency of shared polling mode")
+    public void testSharedPollingModeLatency() throws InterruptedException {
+        long sharedLatency = measureAverageLatency(KafkaConstants.POLLING_MODE_SHARED, "latency-shared");
+        logger.info("Average end to end latency, shared mode: " + sharedLatency + "ms.");
+        // Idle consumer backs off up to the polling interval before its next poll.
+        Assert.assertTrue(sharedLatency < POLLING_INTERVAL,
+                "Shared polling latency " + sharedLatency + "ms is not below the polling interval.");
+    }
+
+    @Test(description = "Test resources commit offsets while the consumer polls continuously")
+    public void testCommitWhilePollingContinuously() throws InterruptedException {
+        String topic = "commit-continuous";
+        CommittingListener listener = new CommittingListener();
+        Properties configParams = getConsumerConfig(KafkaConstants.POLLING_MODE_CONTINUOUS, topic);
+        configParams.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, configParams, "commit-service", 0);
+        consumer.consume();
+        try {
+            for (int counter = 0; counter < MESSAGE_COUNT; counter++) {
+                listener.committed = new CountDownLatch(1);
+                produce(topic, 1);
+                Assert.assertTrue(listener.committed.await(30, TimeUnit.SECONDS), "Offsets were not committed.");
+                // Commits land while the consumer polls, dispatches or backs off in between polls.
+                Thread.sleep(counter * 20);
+            }
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertTrue(listener.errors.isEmpty(), "Commits failed: " + listener.errors);
+        Assert.assertEquals(listener.committedRecords.get(), MESSAGE_COUNT);
+        Assert.assertEquals(getCommittedOffset((String) configParams.get(ConsumerConfig.GROUP_ID_CONFIG), topic),
+                MESSAGE_COUNT);
+    }
+
+    @Test(description = "Test partitions are paused at the in flight batch limit and resumed below it")
+    public void testBackpressure() throws InterruptedException {
+        String topic = "backpressure";
+        TopicPartition partition = new TopicPartition(topic, 0);
+        HoldingListener listener = new HoldingListener();
+        Properties configParams = getConsumerConfig(KafkaConstants.POLLING_MODE_CONTINUOUS, topic);
+        configParams.put(KafkaConstants.ALIAS_MAX_IN_FLIGHT_BATCHES, 2);
+        // Each record is dispatched as a batch of its own.
+        configParams.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, configParams, "backpressure-service", 0);
+        consumer.consume();
+        try {
+            produce(topic, 4);
+            Assert.assertTrue(listener.awaitBatches(2), "Batches were not dispatched.");
+            // Batches held in flight keep the consumer from dispatching further records.
+            Thread.sleep(POLLING_INTERVAL / 2);
+            Assert.assertEquals(listener.heldBatches.size(), 2);
+            Assert.assertTrue(listener.getPausedPartitions().contains(partition), "Partition was not paused.");
+
+            listener.releaseBatches();
+            Assert.assertTrue(listener.awaitBatches(2), "Batches were not dispatched once the limit was freed.");
+            listener.releaseBatches();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (listener.getPausedPartitions().contains(partition) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertFalse(listener.getPausedPartitions().contains(partition), "Partition was not resumed.");
+        } finally {
+            listener.releaseBatches();
+            consumer.stopConsume();
+        }
+        Assert.assertTrue(listener.errors.isEmpty(), "Consumer failed: " + listener.errors);
+    }
+
+    private long measureAverageLatency(String pollingMode, String topic) throws InterruptedException {
+        LatencyRecordingListener listener = new LatencyRecordingListener();
+        KafkaRecordConsumer consumer = new KafkaRecordConsumer(listener, getConsumerConfig(pollingMode, topic),
+                "latency-service-" + pollingMode, 0);
+        consumer.consume();
+        try {
+            // Warm up round makes sure partitions are assigned before latency is measured.
+            produceAndAwait(listener, topic);
+            listener.latencies.clear();
+            for (int counter = 0; counter < MESSAGE_COUNT; counter++) {
+                // Let the consumer go idle before producing, so that idle to busy transition is measured.
+                Thread.sleep(POLLING_INTERVAL / 4);
+                produceAndAwait(listener, topic);
+            }
+        } finally {
+            consumer.stopConsume();
+        }
+        Assert.assertEquals(listener.latencies.size(), MESSAGE_COUNT);
+        long total = 0;
+        for (long latency : listener.latencies) {
+            total += latency;
+        }
+        return total / listener.latencies.size();
+    }
+
+    private void produceAndAwait(LatencyRecordingListener listener, String topic) throws InterruptedException {
+        listener.received = new CountDownLatch(1);
+        produce(topic, 1);
+        Assert.assertTrue(listener.received.await(30, TimeUnit.SECONDS), "Record was not dispatched.");
+    }
+
+    private void produce(String topic, int messageCount) throws InterruptedException {
+        CountDownLatch completion = new CountDownLatch(1);
+        kafkaCluster.useTo().produceStrings(topic, messageCount, completion::countDown, () -> {
+            return "test_string";
+        });
+        completion.await();
+    }
+
+    private long getCommittedOffset(String groupId, String topic) {
+        Properties configParams = new Properties();
+        configParams.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        configParams.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        KafkaUtils.processDefaultConsumerProperties(configParams);
+        try (KafkaConsumer<byte[], byte[]> kafkaConsumer = new KafkaConsumer<>(configParams)) {
+            OffsetAndMetadata committed = kafkaConsumer.committed(new TopicPartition(topic, 0));
+            return committed == null ? -1 : committed.offset();
+        }
+    }
+
+    private Properties getConsumerConfig(String pollingMode, String topic) {
+        Properties configParams = new Properties();
+        configParams.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        configParams.put(ConsumerConfig.GROUP_ID_CONFIG, topic + "-group");
+        configParams.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        ArrayList<String> topics = new ArrayList<>();
+        topics.add(topic);
+        configParams.put(KafkaConstants.ALIAS_TOPICS, topics);
+        configParams.put(KafkaConstants.ALIAS_POLLING_TIMEOUT, POLLING_TIMEOUT);
+        configParams.put(KafkaConstants.ALIAS_POLLING_INTERVAL, POLLING_INTERVAL);
+        configParams.put(KafkaConstants.ALIAS_POLLING_MODE, pollingMode);
+        configParams.put(KafkaConstants.ALIAS_DECOUPLE_PROCESSING, true);
+        KafkaUtils.processDefaultConsumerProperties(configParams);
+        return configParams;
+    }
+
+    @AfterClass
+    public void tearDown() {
+        if (kafkaCluster != null) {
+            kafkaCluster.shutdown();
+            kafkaCluster = null;
+            boolean delete = dataDir.delete();
+            // If files are still locked and a test fails: delete on exit to allow subsequent test execution
+            if (!delete) {
+                dataDir.deleteOnExit();
+            }
+        }
+    }
+
+    protected static KafkaCluster kafkaCluster() {
+        if (kafkaCluster != null) {
+            throw new IllegalStateException();
+        }
+        dataDir = Testing.Files.createTestingDirectory("cluster-kafka-consumer");
+        kafkaCluster = new KafkaCluster().usingDirectory(dataDir).withPorts(2185, 9094);
+        return kafkaCluster;
+    }
+
+    /**
+     * Kafka listener which records latency between record creation and dispatch.
+     */
+    private static class LatencyRecordingListener extends TestKafkaListener {
+
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private volatile CountDownLatch received = new CountDownLatch(1);
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaDispatchFutureListener listener) {
+            recordLatencies(records);
+            listener.notifySuccess();
+        }
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaPollCycleFutureListener listener, String groupID) {
+            recordLatencies(records);
+            listener.notifySuccess();
+        }
+
+        private void recordLatencies(ConsumerRecords records) {
+            long receivedTime = System.currentTimeMillis();
+            for (Object record : records) {
+                latencies.add(receivedTime - ((ConsumerRecord) record).timestamp());
+                received.countDown();
+            }
+        }
+    }
+
+    /**
+     * Kafka listener which holds dispatched batches in flight until they are released by the test.
+     */
+    private static class HoldingListener extends TestKafkaListener {
+
+        private final BlockingQueue<KafkaDispatchFutureListener> heldBatches = new LinkedBlockingQueue<>();
+        private final Semaphore dispatchedBatches = new Semaphore(0);
+        private volatile KafkaConsumer kafkaConsumer;
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaDispatchFutureListener listener) {
+            this.kafkaConsumer = kafkaConsumer;
+            heldBatches.add(listener);
+            dispatchedBatches.release();
+        }
+
+        private boolean awaitBatches(int batchCount) throws InterruptedException {
+            return dispatchedBatches.tryAcquire(batchCount, 30, TimeUnit.SECONDS);
+        }
+
+        private void releaseBatches() {
+            KafkaDispatchFutureListener listener;
+            while ((listener = heldBatches.poll()) != null) {
+                listener.notifySuccess();
+            }
+        }
+
+        private Set getPausedPartitions() {
+            AtomicReference<Set> pausedPartitions = new AtomicReference<>();
+            commandQueue.execute(() -> pausedPartitions.set(kafkaConsumer.paused()));
+            return pausedPartitions.get();
+        }
+    }
+
+    /**
+     * Kafka listener which commits offsets of each batch from another thread, as a resource does.
+     */
+    private static class CommittingListener extends TestKafkaListener {
+
+        private final AtomicInteger committedRecords = new AtomicInteger();
+        private volatile CountDownLatch committed = new CountDownLatch(1);
+
+        @Override
+        public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                      KafkaDispatchFutureListener listener) {
+            new Thread(() -> {
+                try {
+                    commandQueue.execute(() -> kafkaConsumer.commitSync());
+                    committedRecords.addAndGet(records.count());
+                } catch (RuntimeException e) {
+                    errors.add(e);
+                } finally {
+                    listener.notifySuccess();
+                    committed.countDown();
+                }
+            }).start();
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+/*
+*   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+/**
+ * Test cases for committable offset calculation of {@code PartitionOffsetTracker}.
+ */
+public class PartitionOffsetTrackerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("test", 0);
+
+    @Test(description = "Test offsets are committable only up to the lowest pending offset")
+    public void testCommittableOffsetStopsAtLowestPending() {
+        PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+        for (long offset = 10; offset < 15; offset++) {
+            tracker.track(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, null, null));
+        }
+        tracker.complete(PARTITION, 11);
+        tracker.complete(PARTITION, 12);
+        Map<TopicPartition, OffsetAndMetadata> offsets = tracker.committableOffsets();
+        Assert.assertEquals(offsets.get(PARTITION).offset(), 10);
+
+        tracker.complete(PARTITION, 10);
+        offsets = tracker.committableOffsets();
+        Assert.assertEquals(offsets.get(PARTITION).offset(), 13);
+
+        // Offset which has not advanced is not returned again.
+        Assert.assertTrue(tracker.committableOffsets().isEmpty());
+
+        tracker.complete(PARTITION, 14);
+        tracker.complete(PARTITION, 13);
+        offsets = tracker.committableOffsets();
+        Assert.assertEquals(offsets.get(PARTITION).offset(), 15);
+    }
+
+    @Test(description = "Test offsets of a failed lane hold back the committable offset till they are fetched again")
+    public void testRewindDropsOffsetsFetchedAgain() {
+        PartitionOffsetTracker tracker = new PartitionOffsetTracker();
+        for (long offset = 0; offset < 6; offset++) {
+            tracker.track(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, null, null));
+        }
+        // Lane of offsets 0, 2 and 4 succeeded while the lane of offsets 1, 3 and 5 failed.
+        tracker.complete(PARTITION, 0);
+        tracker.complete(PARTITION, 2);
+        tracker.complete(PARTITION, 4);
+        Assert.assertEquals(tracker.committableOffsets().get(PARTITION).offset(), 1);
+
+        tracker.rewind(PARTITION, 1);
+        Assert.assertTrue(tracker.committableOffsets().isEmpty());
+
+        for (long offset = 1; offset < 6; offset++) {
+            tracker.track(new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, null, null));
+            tracker.complete(PARTITION, offset);
+        }
+        Assert.assertEquals(tracker.committableOffsets().get(PARTITION).offset(), 6);
+    }
+
+}
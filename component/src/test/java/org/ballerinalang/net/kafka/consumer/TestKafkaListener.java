@@ -0,0 +1,92 @@
+/*
+*   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+
+package org.ballerinalang.net.kafka.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.TopicPartition;
+import org.ballerinalang.net.kafka.api.KafkaListener;
+import org.ballerinalang.net.kafka.future.KafkaDispatchFutureListener;
+import org.ballerinalang.net.kafka.future.KafkaPollCycleFutureListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Kafka listener for {@code KafkaRecordConsumer} test cases, which completes each batch right away and records
+ * errors reported by the consumer. Test cases override the callbacks they act upon.
+ */
+abstract class TestKafkaListener implements KafkaListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TestKafkaListener.class);
+
+    final List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+    // Resources reach the command queue through the consumer struct created on start, so do test listeners.
+    volatile KafkaConsumerCommandQueue commandQueue;
+
+    @Override
+    public void onConsumerStarted(KafkaConsumer kafkaConsumer, KafkaConsumerCommandQueue commandQueue,
+                                  KafkaProducer transactionProducer, ConsumedOffsetLedger offsetLedger,
+                                  AsyncOffsetCommitter offsetCommitter, RebalanceMetrics rebalanceMetrics,
+                                  String groupID) {
+        this.commandQueue = commandQueue;
+    }
+
+    @Override
+    public void onConsumerClosed(KafkaConsumer kafkaConsumer) {
+    }
+
+    @Override
+    public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                  KafkaDispatchFutureListener listener) {
+        listener.notifySuccess();
+    }
+
+    @Override
+    public void onRecordsReceived(ConsumerRecords records, KafkaConsumer kafkaConsumer,
+                                  KafkaPollCycleFutureListener listener, String groupID) {
+        listener.notifySuccess();
+    }
+
+    @Override
+    public boolean onPartitionsRevoked(KafkaConsumer kafkaConsumer, KafkaConsumerCommandQueue commandQueue,
+                                       Collection<TopicPartition> partitions,
+                                       KafkaPollCycleFutureListener listener) {
+        return false;
+    }
+
+    @Override
+    public boolean onPartitionsAssigned(KafkaConsumer kafkaConsumer, KafkaConsumerCommandQueue commandQueue,
+                                        Collection<TopicPartition> partitions,
+                                        KafkaPollCycleFutureListener listener) {
+        return false;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        logger.error("Kafka consumer retrieved exception: " + throwable.getMessage(), throwable);
+        errors.add(throwable);
+    }
+}
@@ -23,6 +23,7 @@ import io.debezium.util.Testing;
 import org.ballerinalang.launcher.util.BCompileUtil;
 import org.ballerinalang.launcher.util.BRunUtil;
 import org.ballerinalang.launcher.util.CompileResult;
+import org.ballerinalang.model.values.BInteger;
 import org.ballerinalang.model.values.BValue;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
@@ -51,6 +52,8 @@ public class NetKafkaProducerTest {
         kafkaCluster = kafkaCluster().deleteDataPriorToStartup(true)
                 .deleteDataUponShutdown(true).withKafkaConfiguration(prop).addBrokers(1).startup();
         kafkaCluster.createTopic("test", 2, 1);
+        kafkaCluster.createTopic("test-async", 1, 1);
+        kafkaCluster.createTopic("test-batch", 1, 1);
     }
 
     @Test(description = "Test Basic produce")
@@ -73,6 +76,24 @@ public class NetKafkaProducerTest {
         Assert.assertEquals(messagesRead.get(), 2);
     }
 
+    @Test(description = "Test async produce completes its callback with acknowledged record metadata")
+    public void testKafkaProduceAsync() {
+        BValue[] inputBValues = {};
+        BValue[] returnBValues = BRunUtil.invoke(result, "funcTestKafkaProduceAsync", inputBValues);
+        Assert.assertEquals(returnBValues.length, 2);
+        Assert.assertEquals(returnBValues[0].stringValue(), "test-async");
+        Assert.assertEquals(((BInteger) returnBValues[1]).intValue(), 0);
+    }
+
+    @Test(description = "Test batch produce returns metadata per record")
+    public void testKafkaProduceBatch() {
+        BValue[] inputBValues = {};
+        BValue[] returnBValues = BRunUtil.invoke(result, "funcTestKafkaProduceBatch", inputBValues);
+        Assert.assertEquals(returnBValues.length, 2);
+        Assert.assertEquals(((BInteger) returnBValues[0]).intValue(), 2);
+        Assert.assertEquals(((BInteger) returnBValues[1]).intValue(), 0);
+    }
+
     @AfterClass
     public void tearDown() {
         if (kafkaCluster != null) {
@@ -0,0 +1,190 @@
+/*
+*   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+
+package org.ballerinalang.net.kafka.producer;
+
+import io.debezium.kafka.KafkaCluster;
+import io.debezium.util.Testing;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.ballerinalang.net.kafka.KafkaUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for checking out transactional producers of {@code KafkaTransactionalProducerPool} concurrently.
+ */
+public class KafkaTransactionalProducerPoolTest {
+
+    private static final int THREAD_COUNT = 4;
+    private static final int TRANSACTIONS_PER_THREAD = 5;
+
+    private static File dataDir;
+    protected static KafkaCluster kafkaCluster;
+
+    @BeforeClass
+    public void setup() throws IOException {
+        Properties prop = new Properties();
+        prop.put("transaction.state.log.replication.factor", "1");
+        prop.put("transaction.state.log.min.isr", "1");
+        kafkaCluster = kafkaCluster().deleteDataPriorToStartup(true)
+                .deleteDataUponShutdown(true).withKafkaConfiguration(prop).addBrokers(1).startup();
+        kafkaCluster.createTopic("transactional-pool", 1, 1);
+    }
+
+    @Test(description = "Test concurrent transactions are given producers of their own")
+    public void testConcurrentCheckOut() throws Exception {
+        KafkaTransactionalProducerPool producerPool = new KafkaTransactionalProducerPool(
+                getProducerConfig("pool-concurrent"));
+        Set<KafkaProducer<byte[], byte[]>> checkedOutProducers =
+                Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int thread = 0; thread < THREAD_COUNT; thread++) {
+                tasks.add(() -> {
+                    for (int transaction = 0; transaction < TRANSACTIONS_PER_THREAD; transaction++) {
+                        KafkaProducer<byte[], byte[]> kafkaProducer = producerPool.checkOut();
+                        Assert.assertNotSame(kafkaProducer, producerPool.getPrimaryProducer(),
+                                "Primary producer was checked out.");
+                        Assert.assertTrue(checkedOutProducers.add(kafkaProducer),
+                                "Producer was checked out by two transactions.");
+                        try {
+                            kafkaProducer.beginTransaction();
+                            kafkaProducer.send(new ProducerRecord<>("transactional-pool",
+                                    "test_string".getBytes(StandardCharsets.UTF_8)));
+                            kafkaProducer.commitTransaction();
+                        } finally {
+                            checkedOutProducers.remove(kafkaProducer);
+                            producerPool.checkIn(kafkaProducer);
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> result : executorService.invokeAll(tasks, 60, TimeUnit.SECONDS)) {
+                result.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        // Producers are reused, hence no more producers than concurrent transactions are created.
+        Assert.assertTrue(producerPool.getProducerCount() <= THREAD_COUNT + 1,
+                "Producers were not reused: " + producerPool.getProducerCount());
+        producerPool.close();
+        Assert.assertEquals(producerPool.getProducerCount(), 0);
+    }
+
+    @Test(description = "Test producers checked out while the pool is closed are closed once returned")
+    public void testCheckInAfterClose() {
+        KafkaTransactionalProducerPool producerPool = new KafkaTransactionalProducerPool(
+                getProducerConfig("pool-close"));
+        KafkaProducer<byte[], byte[]> kafkaProducer = producerPool.checkOut();
+        Assert.assertEquals(producerPool.getProducerCount(), 2);
+        producerPool.close();
+        producerPool.checkIn(kafkaProducer);
+        Assert.assertEquals(producerPool.getProducerCount(), 0);
+        try {
+            producerPool.checkOut();
+            Assert.fail("Producer was checked out from a closed pool.");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(), "Transactional producer pool is closed.");
+        }
+    }
+
+    @Test(description = "Test a producer which failed its transaction is not reused")
+    public void testDiscard() {
+        KafkaTransactionalProducerPool producerPool = new KafkaTransactionalProducerPool(
+                getProducerConfig("pool-discard"));
+        try {
+            KafkaProducer<byte[], byte[]> kafkaProducer = producerPool.checkOut();
+            producerPool.discard(kafkaProducer);
+            Assert.assertEquals(producerPool.getProducerCount(), 1);
+            Assert.assertNotSame(producerPool.checkOut(), kafkaProducer);
+        } finally {
+            producerPool.close();
+        }
+    }
+
+    @Test(description = "Test a transactional id is held by a single pool until the pool is closed")
+    public void testDuplicateTransactionalId() {
+        KafkaTransactionalProducerPool producerPool = new KafkaTransactionalProducerPool(
+                getProducerConfig("pool-duplicate"));
+        try {
+            new KafkaTransactionalProducerPool(getProducerConfig("pool-duplicate"));
+            Assert.fail("Pool was created with a transactional id held by another pool.");
+        } catch (IllegalStateException e) {
+            Assert.assertEquals(e.getMessage(),
+                    "Transactional id pool-duplicate is already used by another producer.");
+        } finally {
+            producerPool.close();
+        }
+        producerPool = new KafkaTransactionalProducerPool(getProducerConfig("pool-duplicate"));
+        producerPool.close();
+    }
+
+    private Properties getProducerConfig(String transactionalId) {
+        Properties configParams = new Properties();
+        configParams.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9094");
+        configParams.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, transactionalId);
+        KafkaUtils.processDefaultProducerProperties(configParams);
+        return configParams;
+    }
+
+    @AfterClass
+    public void tearDown() {
+        if (kafkaCluster != null) {
+            kafkaCluster.shutdown();
+            kafkaCluster = null;
+            boolean delete = dataDir.delete();
+            // If files are still locked and a test fails: delete on exit to allow subsequent test execution
+            if (!delete) {
+                dataDir.deleteOnExit();
+            }
+        }
+    }
+
+    protected static KafkaCluster kafkaCluster() {
+        if (kafkaCluster != null) {
+            throw new IllegalStateException();
+        }
+        dataDir = Testing.Files.createTestingDirectory("cluster-kafka-producer-pool");
+        kafkaCluster = new KafkaCluster().usingDirectory(dataDir).withPorts(2185, 9094);
+        return kafkaCluster;
+    }
+
+}
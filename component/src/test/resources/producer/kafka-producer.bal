@@ -1,5 +1,7 @@
 import ballerina.net.kafka;
 
+kafka:RecordMetadata asyncMetadata;
+
 function funcTestKafkaProduce() {
     string msg = "Hello World";
     blob byteMsg = msg.toBlob("UTF-8");
@@ -16,6 +18,53 @@ function funcTestKafkaProduce() {
     kafkaProduce(recordNext);
 }
 
+function funcTestKafkaProduceAsync() (string, int) {
+    string msg = "Hello World Async";
+    blob byteMsg = msg.toBlob("UTF-8");
+    kafka:ProducerRecord record = {};
+    record.value = byteMsg;
+    record.topic = "test-async";
+    endpoint<kafka:ProducerClient> kafkaEP {
+        create kafka:ProducerClient (["localhost:9094"], getProducerConfig());
+    }
+    kafkaEP.sendAsync(record, onSendAsyncCompleted);
+    // Flush returns once the sent records are completed, along with their callbacks.
+    kafkaEP.flush();
+    kafkaEP.close();
+    return asyncMetadata.topic, asyncMetadata.offset;
+}
+
+function onSendAsyncCompleted(kafka:RecordMetadata metadata, error err) {
+    asyncMetadata = metadata;
+}
+
+function funcTestKafkaProduceBatch() (int, int) {
+    kafka:ProducerRecord[] records = [];
+    int i = 0;
+    while (i < 3) {
+        string msg = "Hello World Batch " + i;
+        kafka:ProducerRecord record = {};
+        record.value = msg.toBlob("UTF-8");
+        record.topic = "test-batch";
+        records[i] = record;
+        i = i + 1;
+    }
+    endpoint<kafka:ProducerClient> kafkaEP {
+        create kafka:ProducerClient (["localhost:9094"], getProducerConfig());
+    }
+    var metadata, errors = kafkaEP.sendBatch(records);
+    kafkaEP.close();
+    int failed = 0;
+    i = 0;
+    while (i < lengthof errors) {
+        if (errors[i] != null) {
+            failed = failed + 1;
+        }
+        i = i + 1;
+    }
+    return metadata[2].offset, failed;
+}
+
 function kafkaProduce(kafka:ProducerRecord record) {
     endpoint<kafka:ProducerClient> kafkaEP {
         create kafka:ProducerClient (["localhost:9094"], getProducerConfig());